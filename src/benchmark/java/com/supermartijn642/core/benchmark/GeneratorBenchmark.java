@@ -0,0 +1,143 @@
+package com.supermartijn642.core.benchmark;
+
+import com.google.gson.JsonObject;
+import com.supermartijn642.core.generator.*;
+import net.minecraft.util.ResourceLocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created 14/08/2022 by SuperMartijn642
+ * <p>
+ * Measures the throughput of the resource generators for a synthetic mod with the given number of blocks.
+ * Allocation rates are reported by JMH's gc profiler, the peak heap usage is printed after every iteration.
+ * <p>
+ * Generators which require registered blocks or items, such as the block state, recipe, loot table and tag generators, cannot run outside a bootstrapped game.
+ * These are measured by {@link RegistryGeneratorBenchmark} instead.
+ * <p>
+ * The saveJsonResource benchmarks only measure serializing and saving prepared json, once from a json tree and once streamed through a json writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4G"})
+public class GeneratorBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+
+    @Param({"1000", "10000", "50000"})
+    public int blocks;
+
+    private InMemoryResourceCache cache;
+    private String[] names;
+    private JsonObject[] blockStates;
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap(){
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+            if(pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakHeap(){
+        long peak = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+            if(pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        }
+        System.out.println();
+        System.out.println("Peak heap usage: " + peak / (1024 * 1024) + " MB");
+    }
+
+    @Setup(Level.Trial)
+    public void createCache(){
+        this.cache = new InMemoryResourceCache();
+        this.cache.addExistingResource(ResourceType.ASSET, "minecraft", "models", "block/cube_all", ".json");
+        for(int i = 0; i < this.blocks; i++)
+            this.cache.addExistingResource(ResourceType.ASSET, NAMESPACE, "textures", "block/block_" + i, ".png");
+
+        // Json to be saved by the saveJsonResource benchmarks
+        this.names = new String[this.blocks];
+        this.blockStates = new JsonObject[this.blocks];
+        for(int i = 0; i < this.blocks; i++){
+            this.names[i] = "block_" + i;
+            JsonObject model = new JsonObject();
+            model.addProperty("model", NAMESPACE + ":block/block_" + i);
+            JsonObject variants = new JsonObject();
+            variants.add("", model);
+            this.blockStates[i] = new JsonObject();
+            this.blockStates[i].add("variants", variants);
+        }
+    }
+
+    /**
+     * Only removes the resources saved by the previous invocation, the seeded resources are kept
+     */
+    @Setup(Level.Invocation)
+    public void clearCache(){
+        this.cache.clear();
+    }
+
+    @Benchmark
+    public void models(Blackhole blackhole){
+        ModelGenerator generator = new ModelGenerator(NAMESPACE, this.cache) {
+            @Override
+            public void generate(){
+                for(int i = 0; i < GeneratorBenchmark.this.blocks; i++){
+                    this.cubeAll(NAMESPACE, "block/block_" + i, new ResourceLocation(NAMESPACE, "block/block_" + i));
+                    this.model(NAMESPACE, "item/block_" + i).parent(NAMESPACE, "block/block_" + i);
+                }
+            }
+        };
+        generator.generate();
+        generator.save();
+        blackhole.consume(this.cache.getSavedResources());
+    }
+
+    @Benchmark
+    public void language(Blackhole blackhole){
+        LanguageGenerator generator = new LanguageGenerator(NAMESPACE, this.cache, "en_us") {
+            @Override
+            public void generate(){
+                for(int i = 0; i < GeneratorBenchmark.this.blocks; i++)
+                    this.translation("block." + NAMESPACE + ".block_" + i, "Block " + i);
+            }
+        };
+        generator.generate();
+        generator.save();
+        blackhole.consume(this.cache.getSavedResources());
+    }
+
+    @Benchmark
+    public void saveJsonResource(Blackhole blackhole){
+        for(int i = 0; i < this.blocks; i++)
+            this.cache.saveJsonResource(ResourceType.ASSET, this.blockStates[i], NAMESPACE, "blockstates", this.names[i]);
+        blackhole.consume(this.cache.getSavedResources());
+    }
+
+    @Benchmark
+    public void saveJsonResourceStreamed(Blackhole blackhole){
+        for(int i = 0; i < this.blocks; i++){
+            JsonObject model = this.blockStates[i].getAsJsonObject("variants").getAsJsonObject("");
+            this.cache.saveJsonResource(ResourceType.ASSET, writer -> {
+                writer.beginObject();
+                writer.name("variants").beginObject();
+                writer.name("").beginObject();
+                writer.name("model").value(model.get("model").getAsString());
+                writer.endObject();
+                writer.endObject();
+                writer.endObject();
+            }, NAMESPACE, "blockstates", this.names[i]);
+        }
+        blackhole.consume(this.cache.getSavedResources());
+    }
+}
@@ -0,0 +1,214 @@
+package com.supermartijn642.core.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.supermartijn642.core.generator.*;
+import com.supermartijn642.core.registry.RegistrationHandler;
+import com.supermartijn642.core.registry.Registries;
+import net.minecraft.block.AbstractBlock;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.Item;
+import net.minecraft.item.Items;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.fml.event.lifecycle.GatherDataEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Created 17/08/2022 by SuperMartijn642
+ * <p>
+ * Measures the block state, recipe, tag and loot table generators. These generators require registered blocks and items, hence they are run from
+ * within a data generator run rather than through JMH. The 'generatorBenchmarks' run registers the synthetic blocks and runs the benchmark when
+ * the data generators are gathered. Results are logged and written to the file given by the 'corelibbenchmark.output' property.
+ */
+@Mod("corelibbenchmark")
+public class RegistryGeneratorBenchmark {
+
+    private static final String NAMESPACE = "corelibbenchmark";
+    private static final Logger LOGGER = LogManager.getLogger(NAMESPACE);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final int[] BLOCK_COUNTS = {1000, 10000, 50000};
+    private static final int WARMUP_ITERATIONS = 3, MEASUREMENT_ITERATIONS = 5;
+
+    private final List<Block> blocks = new ArrayList<>();
+
+    public RegistryGeneratorBenchmark(){
+        if(!Boolean.getBoolean("corelibbenchmark.run"))
+            return;
+
+        int maxBlocks = BLOCK_COUNTS[BLOCK_COUNTS.length - 1];
+        RegistrationHandler handler = RegistrationHandler.get(NAMESPACE);
+        handler.registerBlockCallback(helper -> {
+            for(int i = 0; i < maxBlocks; i++)
+                this.blocks.add(helper.register("block_" + i, new Block(AbstractBlock.Properties.of(Material.STONE))));
+        });
+        handler.registerItemCallback(helper -> {
+            for(Block block : this.blocks)
+                helper.register(Registries.BLOCKS.getIdentifier(block).getPath(), new BlockItem(block, new Item.Properties()));
+        });
+        FMLJavaModLoadingContext.get().getModEventBus().addListener(this::onGatherData);
+    }
+
+    private void onGatherData(GatherDataEvent e){
+        JsonArray results = new JsonArray();
+        for(int count : BLOCK_COUNTS){
+            List<Block> blocks = this.blocks.subList(0, count);
+            results.add(this.run("blockStates", blocks, BlockStates::new));
+            results.add(this.run("recipes", blocks, Recipes::new));
+            results.add(this.run("tags", blocks, Tags::new));
+            results.add(this.run("lootTables", blocks, LootTables::new));
+        }
+
+        String output = System.getProperty("corelibbenchmark.output");
+        if(output != null){
+            Path file = Paths.get(output);
+            try{
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                Files.write(file, GSON.toJson(results).getBytes(StandardCharsets.UTF_8));
+            }catch(IOException exception){
+                throw new RuntimeException("Failed to write benchmark results to '" + file + "'!", exception);
+            }
+        }
+    }
+
+    private JsonObject run(String name, List<Block> blocks, BiFunction<ResourceCache,List<Block>,ResourceGenerator> generatorFactory){
+        for(int i = 0; i < WARMUP_ITERATIONS; i++)
+            this.runIteration(blocks, generatorFactory);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long totalTime = 0, totalAllocated = 0, peakHeap = 0;
+        for(int i = 0; i < MEASUREMENT_ITERATIONS; i++){
+            System.gc();
+            for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+                if(pool.getType() == MemoryType.HEAP)
+                    pool.resetPeakUsage();
+            }
+
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            long time = System.nanoTime();
+            this.runIteration(blocks, generatorFactory);
+            totalTime += System.nanoTime() - time;
+            totalAllocated += threads.getCurrentThreadAllocatedBytes() - allocated;
+
+            long peak = 0;
+            for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+                if(pool.getType() == MemoryType.HEAP)
+                    peak += pool.getPeakUsage().getUsed();
+            }
+            peakHeap = Math.max(peakHeap, peak);
+        }
+
+        double millis = totalTime / 1_000_000d / MEASUREMENT_ITERATIONS;
+        long allocatedPerOp = totalAllocated / MEASUREMENT_ITERATIONS;
+        LOGGER.info(String.format("%-10s %6d blocks: %10.2f ms/op, %8d KB allocated/op, %5d MB peak heap", name, blocks.size(), millis, allocatedPerOp / 1024, peakHeap / (1024 * 1024)));
+
+        JsonObject result = new JsonObject();
+        result.addProperty("benchmark", name);
+        result.addProperty("blocks", blocks.size());
+        result.addProperty("msPerOp", millis);
+        result.addProperty("bytesAllocatedPerOp", allocatedPerOp);
+        result.addProperty("peakHeapBytes", peakHeap);
+        return result;
+    }
+
+    private void runIteration(List<Block> blocks, BiFunction<ResourceCache,List<Block>,ResourceGenerator> generatorFactory){
+        InMemoryResourceCache cache = new InMemoryResourceCache();
+        cache.addExistingResource(ResourceType.DATA, "minecraft", "advancements", "recipes/root", ".json");
+        for(Block block : blocks)
+            cache.addExistingResource(ResourceType.ASSET, NAMESPACE, "models", "block/" + Registries.BLOCKS.getIdentifier(block).getPath(), ".json");
+
+        ResourceGenerator generator = generatorFactory.apply(cache, blocks);
+        generator.generate();
+        generator.save();
+        if(cache.getSavedResources().isEmpty())
+            throw new IllegalStateException("Generator '" + generator.getName() + "' did not save any resources!");
+    }
+
+    private static class BlockStates extends BlockStateGenerator {
+
+        private final List<Block> blocks;
+
+        public BlockStates(ResourceCache cache, List<Block> blocks){
+            super(NAMESPACE, cache);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public void generate(){
+            for(Block block : this.blocks)
+                this.blockState(block).emptyVariant(variant -> variant.model("block/" + Registries.BLOCKS.getIdentifier(block).getPath()));
+        }
+    }
+
+    private static class Recipes extends RecipeGenerator {
+
+        private final List<Block> blocks;
+
+        public Recipes(ResourceCache cache, List<Block> blocks){
+            super(NAMESPACE, cache);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public void generate(){
+            for(Block block : this.blocks){
+                this.shaped(block, 4)
+                    .pattern("AAA", "ABA", "AAA")
+                    .input('A', Items.STONE)
+                    .input('B', Items.IRON_INGOT)
+                    .unlockedBy(Items.IRON_INGOT);
+            }
+        }
+    }
+
+    private static class Tags extends TagGenerator {
+
+        private final List<Block> blocks;
+
+        public Tags(ResourceCache cache, List<Block> blocks){
+            super(NAMESPACE, cache);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public void generate(){
+            TagBuilder<Block> tag = this.blockMineableWithPickaxe();
+            for(Block block : this.blocks)
+                tag.add(block);
+        }
+    }
+
+    private static class LootTables extends LootTableGenerator {
+
+        private final List<Block> blocks;
+
+        public LootTables(ResourceCache cache, List<Block> blocks){
+            super(NAMESPACE, cache);
+            this.blocks = blocks;
+        }
+
+        @Override
+        public void generate(){
+            for(Block block : this.blocks)
+                this.dropSelf(block);
+        }
+    }
+}
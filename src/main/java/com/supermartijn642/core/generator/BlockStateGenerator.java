@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.supermartijn642.core.CoreLib;
 import com.supermartijn642.core.registry.Registries;
 import com.supermartijn642.core.util.Pair;
 import net.minecraft.block.Block;
@@ -29,19 +30,27 @@ public abstract class BlockStateGenerator extends ResourceGenerator {
 
     @Override
     public void save(){
+        int totalVariants = 0, compactedVariants = 0;
         // Loop over all block states
         for(BlockStateBuilder blockStateBuilder : this.blockStates.values()){
             ResourceLocation block = Registries.BLOCKS.getIdentifier(blockStateBuilder.block);
             JsonObject json = new JsonObject();
 
             // Serialize all variants
-            JsonObject variantsJson = new JsonObject();
+            Map<PartialBlockState,JsonElement> variants = new LinkedHashMap<>();
             for(Map.Entry<PartialBlockState,VariantBuilder> variantEntry : blockStateBuilder.variants.entrySet()){
                 if(variantEntry.getValue().models.isEmpty())
                     continue;
-                String name = formatVariantName(variantEntry.getKey());
-                variantsJson.add(name, this.serializeVariant(variantEntry.getValue(), block));
+                variants.put(variantEntry.getKey(), this.serializeVariant(variantEntry.getValue(), block));
+            }
+            if(this.compactVariants() && blockStateBuilder.multipartVariants.isEmpty()){
+                totalVariants += variants.size();
+                variants = compact(blockStateBuilder.block, variants);
+                compactedVariants += variants.size();
             }
+            JsonObject variantsJson = new JsonObject();
+            for(Map.Entry<PartialBlockState,JsonElement> variant : variants.entrySet())
+                variantsJson.add(formatVariantName(variant.getKey()), variant.getValue());
             if(variantsJson.size() > 0)
                 json.add("variants", variantsJson);
 
@@ -84,6 +93,67 @@ public abstract class BlockStateGenerator extends ResourceGenerator {
             // Save the object to the cache
             this.cache.saveJsonResource(ResourceType.ASSET, json, this.modid, "blockstates", block.getPath());
         }
+
+        if(compactedVariants < totalVariants)
+            CoreLib.LOGGER.info("'" + this.getName() + "' reduced " + totalVariants + " block state variants to " + compactedVariants + " variants.");
+    }
+
+    /**
+     * Whether variants should be combined when their models do not depend on some of the block's properties.
+     * The resulting block states are equivalent, but contain fewer variants.
+     */
+    protected boolean compactVariants(){
+        return true;
+    }
+
+    /**
+     * Removes properties from the variants' keys which do not affect the variants' models.
+     * Only applies when the variants cover every combination of the same properties exactly once, such that the compacted variants match the exact same states.
+     */
+    private static Map<PartialBlockState,JsonElement> compact(Block block, Map<PartialBlockState,JsonElement> variants){
+        if(variants.size() < 2)
+            return variants;
+
+        // Check all variants cover every combination of the same properties
+        Set<Property<?>> properties = variants.keySet().iterator().next().properties.keySet();
+        long combinations = 1;
+        for(Property<?> property : properties)
+            combinations *= property.getPossibleValues().size();
+        if(combinations != variants.size())
+            return variants;
+        // Partial states are compared by identity, hence the same state may be present more than once, in which case not every combination is covered
+        Set<Map<Property<?>,Comparable<?>>> distinctStates = new HashSet<>();
+        for(PartialBlockState state : variants.keySet()){
+            if(!state.properties.keySet().equals(properties) || !distinctStates.add(state.properties))
+                return variants;
+        }
+
+        // Drop every property on which the models do not depend
+        Map<Map<Property<?>,Comparable<?>>,JsonElement> current = new LinkedHashMap<>();
+        variants.forEach((state, json) -> current.put(state.properties, json));
+        for(Property<?> property : properties){
+            Map<Map<Property<?>,Comparable<?>>,JsonElement> reduced = new LinkedHashMap<>();
+            boolean independent = true;
+            for(Map.Entry<Map<Property<?>,Comparable<?>>,JsonElement> entry : current.entrySet()){
+                Map<Property<?>,Comparable<?>> key = new LinkedHashMap<>(entry.getKey());
+                key.remove(property);
+                JsonElement existing = reduced.putIfAbsent(key, entry.getValue());
+                if(existing != null && !existing.equals(entry.getValue())){
+                    independent = false;
+                    break;
+                }
+            }
+            if(independent){
+                current.clear();
+                current.putAll(reduced);
+            }
+        }
+
+        if(current.size() == variants.size())
+            return variants;
+        Map<PartialBlockState,JsonElement> compacted = new LinkedHashMap<>();
+        current.forEach((key, json) -> compacted.put(new PartialBlockState(block, key), json));
+        return compacted;
     }
 
     private JsonElement serializeVariant(VariantBuilder builder, ResourceLocation block){
@@ -94,7 +164,8 @@ public abstract class BlockStateGenerator extends ResourceGenerator {
             // Model location
             if(!this.cache.doesResourceExist(ResourceType.ASSET, model.modelLocation.getNamespace(), "models", model.modelLocation.getPath(), ".json"))
                 throw new RuntimeException("Could not find model '" + model.modelLocation + "' in block state for block '" + block + "'!");
-            modelJson.addProperty("model", model.modelLocation.toString());
+            // Point at the model a deduplicated model refers to, such that the game only loads the canonical model
+            modelJson.addProperty("model", this.cache.getCanonicalModel(model.modelLocation).toString());
             // Rotation
             if(model.xRotation != 0)
                 modelJson.addProperty("x", model.xRotation);
@@ -0,0 +1,124 @@
+package com.supermartijn642.core.generator;
+
+import net.minecraft.util.ResourceLocation;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Created 13/08/2022 by SuperMartijn642
+ * <p>
+ * Resource cache which keeps all saved resources in memory rather than writing them to disk.
+ * This allows generators to be run outside of data generation, for example in tests or benchmarks.
+ */
+public class InMemoryResourceCache extends ResourceCache {
+
+    private final Set<String> existingResources = new HashSet<>();
+    private final Map<String,byte[]> manualResources = new HashMap<>();
+    private final Set<String> trackedResources = new HashSet<>();
+    private final Map<String,byte[]> savedResources = new TreeMap<>();
+    private final Map<ResourceLocation,ResourceLocation> canonicalModels = new HashMap<>();
+
+    /**
+     * Marks the given resource as existing, as if it is part of a loaded resource pack.
+     * @param resourceType whether the resource is part of the server data or the client assets
+     * @param namespace    the namespace of the resource
+     * @param directory    name of the directory within the namespace
+     * @param fileName     name of the file
+     * @param extension    the file's extension
+     */
+    public synchronized void addExistingResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        this.existingResources.add(getPath(resourceType, namespace, directory, fileName, extension));
+    }
+
+    /**
+     * Adds a resource which can be read through {@link #getManualResource(ResourceType, String, String, String, String)}.
+     * @param resourceType whether the resource is part of the server data or the client assets
+     * @param data         contents of the resource
+     * @param namespace    the namespace of the resource
+     * @param directory    name of the directory within the namespace
+     * @param fileName     name of the file
+     * @param extension    the file's extension
+     */
+    public synchronized void addManualResource(ResourceType resourceType, byte[] data, String namespace, String directory, String fileName, String extension){
+        if(data == null)
+            throw new IllegalArgumentException("Data must not be null!");
+
+        this.manualResources.put(getPath(resourceType, namespace, directory, fileName, extension), data);
+    }
+
+    @Override
+    public synchronized boolean doesResourceExist(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        String path = getPath(resourceType, namespace, directory, fileName, extension);
+        return this.existingResources.contains(path) || this.trackedResources.contains(path);
+    }
+
+    @Override
+    public synchronized void trackToBeGeneratedResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        this.trackedResources.add(getPath(resourceType, namespace, directory, fileName, extension));
+    }
+
+    @Override
+    public synchronized void saveResource(ResourceType resourceType, byte[] data, String namespace, String directory, String fileName, String extension){
+        String path = getPath(resourceType, namespace, directory, fileName, extension);
+        if(this.savedResources.containsKey(path))
+            throw new RuntimeException("Duplicate file '" + path + "'!");
+
+        this.savedResources.put(path, data);
+    }
+
+    @Override
+    public synchronized Optional<InputStream> getManualResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        String path = getPath(resourceType, namespace, directory, fileName, extension);
+        byte[] data = this.savedResources.containsKey(path) ? this.savedResources.get(path) : this.manualResources.get(path);
+        return data == null ? Optional.empty() : Optional.of(new ByteArrayInputStream(data));
+    }
+
+    @Override
+    synchronized void putCanonicalModel(ResourceLocation model, ResourceLocation canonicalModel){
+        this.canonicalModels.put(model, canonicalModel);
+    }
+
+    @Override
+    synchronized ResourceLocation getCanonicalModel(ResourceLocation model){
+        return this.canonicalModels.getOrDefault(model, model);
+    }
+
+    /**
+     * Gives all saved resources, sorted by their path. Paths have the form '{assets|data}/namespace/directory/fileName.extension'.
+     */
+    public synchronized Map<String,byte[]> getSavedResources(){
+        return Collections.unmodifiableMap(new TreeMap<>(this.savedResources));
+    }
+
+    /**
+     * Gives the data of the requested saved resource.
+     * @return the saved data, or an empty optional if no resource was saved at the given location
+     */
+    public synchronized Optional<byte[]> getSavedResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return Optional.ofNullable(this.savedResources.get(getPath(resourceType, namespace, directory, fileName, extension)));
+    }
+
+    /**
+     * Gives the data of the requested saved resource as a UTF-8 string.
+     * @return the saved data, or an empty optional if no resource was saved at the given location
+     */
+    public Optional<String> getSavedResourceAsString(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return this.getSavedResource(resourceType, namespace, directory, fileName, extension).map(data -> new String(data, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Removes all saved and tracked resources, seeded existing and manual resources are kept.
+     */
+    public synchronized void clear(){
+        this.trackedResources.clear();
+        this.savedResources.clear();
+        this.canonicalModels.clear();
+    }
+
+    private static String getPath(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return resourceType.getDirectoryName() + "/" + namespace + "/" + directory + "/" + fileName + extension;
+    }
+}
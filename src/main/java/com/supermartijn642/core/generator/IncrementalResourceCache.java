@@ -0,0 +1,236 @@
+package com.supermartijn642.core.generator;
+
+import com.google.gson.*;
+import net.minecraft.util.ResourceLocation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Created 11/08/2022 by SuperMartijn642
+ * <p>
+ * Resource cache given to a single generator, which records the generator's outputs. When the generator's {@link ResourceGenerator#getInputFingerprint() input fingerprint}
+ * and all of its recorded outputs are unchanged since the previous run, the outputs are kept without running the generator.
+ */
+class IncrementalResourceCache extends ResourceCache {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private final ResourceCache parent;
+    private final Path recordDirectory;
+    private final List<Output> outputs = new ArrayList<>();
+    private String fingerprint;
+    /**
+     * Resources tracked whilst deferring, these are only passed on to the parent cache once the generator finished generating
+     */
+    private List<Output> deferredResources;
+    private Set<String> deferredLocations;
+
+    IncrementalResourceCache(ResourceCache parent, Path outputDirectory){
+        this.parent = parent;
+        this.recordDirectory = outputDirectory.resolve(".cache").resolve("supermartijn642corelib").resolve("incremental");
+    }
+
+    /**
+     * Keeps the outputs of the given generator from the previous run if its inputs and outputs did not change.
+     * @return whether the previous outputs were kept, if {@code false} the generator should be run
+     */
+    boolean replay(ResourceGenerator generator){
+        this.fingerprint = generator.getInputFingerprint();
+        if(this.fingerprint == null)
+            return false;
+
+        Path recordFile = this.getRecordFile(generator);
+        if(!Files.exists(recordFile))
+            return false;
+        List<Output> outputs = new ArrayList<>();
+        try(Reader reader = Files.newBufferedReader(recordFile, StandardCharsets.UTF_8)){
+            JsonObject json = GSON.fromJson(reader, JsonObject.class);
+            if(json == null || !json.has("input") || !this.fingerprint.equals(json.get("input").getAsString()))
+                return false;
+            for(JsonElement element : json.getAsJsonArray("outputs"))
+                outputs.add(Output.fromJson(element.getAsJsonObject()));
+        }catch(IOException | RuntimeException e){
+            // An unreadable record simply means the generator has to run again
+            return false;
+        }
+
+        // Check all outputs before keeping any, such that a partial replay never happens
+        for(Output output : outputs){
+            if(!this.parent.isResourceUnchanged(output.resourceType, output.namespace, output.directory, output.fileName, output.extension, output.hash))
+                return false;
+        }
+        for(Output output : outputs)
+            this.parent.keepResource(output.resourceType, output.namespace, output.directory, output.fileName, output.extension, output.hash);
+        return true;
+    }
+
+    /**
+     * Stores the fingerprint and outputs of the given generator, such that it may be skipped on the next run.
+     */
+    void storeRecord(ResourceGenerator generator){
+        Path recordFile = this.getRecordFile(generator);
+        try{
+            JsonArray outputs = new JsonArray();
+            for(Output output : this.outputs){
+                String hash = this.parent.getSavedResourceHash(output.resourceType, output.namespace, output.directory, output.fileName, output.extension);
+                if(hash == null){
+                    // Without a hash for every output, the outputs cannot be verified on the next run
+                    Files.deleteIfExists(recordFile);
+                    return;
+                }
+                outputs.add(new Output(output.resourceType, output.namespace, output.directory, output.fileName, output.extension, hash).toJson());
+            }
+            if(this.fingerprint == null){
+                Files.deleteIfExists(recordFile);
+                return;
+            }
+
+            JsonObject json = new JsonObject();
+            json.addProperty("input", this.fingerprint);
+            json.add("outputs", outputs);
+            Files.createDirectories(recordFile.getParent());
+            Files.write(recordFile, GSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+        }catch(IOException e){
+            throw new RuntimeException("Failed to store generation record for '" + generator.getName() + "'!", e);
+        }
+    }
+
+    /**
+     * Holds back all resources tracked from now on, such that generators generating in parallel cannot see each other's resources.
+     * The generator itself still sees its own tracked resources.
+     */
+    synchronized void deferTrackedResources(){
+        this.deferredResources = new ArrayList<>();
+        this.deferredLocations = new HashSet<>();
+    }
+
+    /**
+     * Passes all resources tracked since {@link #deferTrackedResources()} on to the parent cache.
+     */
+    synchronized void stopDeferringTrackedResources(){
+        List<Output> resources = this.deferredResources;
+        this.deferredResources = null;
+        this.deferredLocations = null;
+        if(resources != null){
+            for(Output resource : resources)
+                this.parent.trackToBeGeneratedResource(resource.resourceType, resource.namespace, resource.directory, resource.fileName, resource.extension);
+        }
+    }
+
+    private static String getLocation(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return resourceType.getDirectoryName() + "/" + namespace + "/" + directory + "/" + fileName + extension;
+    }
+
+    /**
+     * Records are keyed on both the generator's class and name, such that multiple generators of the same class, e.g. language generators for different languages, get their own record.
+     */
+    private Path getRecordFile(ResourceGenerator generator){
+        String name = generator.getName().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_.-]", "_");
+        return this.recordDirectory.resolve(generator.getOwnerModid()).resolve(generator.getClass().getName() + "-" + name + ".json");
+    }
+
+    @Override
+    public boolean doesResourceExist(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        synchronized(this){
+            if(this.deferredLocations != null && this.deferredLocations.contains(getLocation(resourceType, namespace, directory, fileName, extension)))
+                return true;
+        }
+        return this.parent.doesResourceExist(resourceType, namespace, directory, fileName, extension);
+    }
+
+    @Override
+    public void trackToBeGeneratedResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        synchronized(this){
+            if(this.deferredResources != null){
+                if(this.deferredLocations.add(getLocation(resourceType, namespace, directory, fileName, extension)))
+                    this.deferredResources.add(new Output(resourceType, namespace, directory, fileName, extension, null));
+                return;
+            }
+        }
+        this.parent.trackToBeGeneratedResource(resourceType, namespace, directory, fileName, extension);
+    }
+
+    @Override
+    public synchronized void saveResource(ResourceType resourceType, byte[] data, String namespace, String directory, String fileName, String extension){
+        this.parent.saveResource(resourceType, data, namespace, directory, fileName, extension);
+        this.outputs.add(new Output(resourceType, namespace, directory, fileName, extension, null));
+    }
+
+    @Override
+    public Optional<InputStream> getManualResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return this.parent.getManualResource(resourceType, namespace, directory, fileName, extension);
+    }
+
+    @Override
+    public void flush(){
+        this.parent.flush();
+    }
+
+    @Override
+    boolean isResourceUnchanged(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+        return this.parent.isResourceUnchanged(resourceType, namespace, directory, fileName, extension, hash);
+    }
+
+    @Override
+    void keepResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+        this.parent.keepResource(resourceType, namespace, directory, fileName, extension, hash);
+    }
+
+    @Override
+    void putCanonicalModel(ResourceLocation model, ResourceLocation canonicalModel){
+        this.parent.putCanonicalModel(model, canonicalModel);
+    }
+
+    @Override
+    ResourceLocation getCanonicalModel(ResourceLocation model){
+        return this.parent.getCanonicalModel(model);
+    }
+
+    @Override
+    String getSavedResourceHash(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return this.parent.getSavedResourceHash(resourceType, namespace, directory, fileName, extension);
+    }
+
+    private static class Output {
+
+        private final ResourceType resourceType;
+        private final String namespace, directory, fileName, extension, hash;
+
+        private Output(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+            this.resourceType = resourceType;
+            this.namespace = namespace;
+            this.directory = directory;
+            this.fileName = fileName;
+            this.extension = extension;
+            this.hash = hash;
+        }
+
+        private JsonObject toJson(){
+            JsonObject json = new JsonObject();
+            json.addProperty("type", this.resourceType.name());
+            json.addProperty("namespace", this.namespace);
+            json.addProperty("directory", this.directory);
+            json.addProperty("file", this.fileName);
+            json.addProperty("extension", this.extension);
+            json.addProperty("hash", this.hash);
+            return json;
+        }
+
+        private static Output fromJson(JsonObject json){
+            return new Output(
+                ResourceType.valueOf(json.get("type").getAsString()),
+                json.get("namespace").getAsString(),
+                json.get("directory").getAsString(),
+                json.get("file").getAsString(),
+                json.get("extension").getAsString(),
+                json.get("hash").getAsString()
+            );
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.supermartijn642.core.generator;
 
-import com.google.gson.JsonObject;
 import net.minecraft.block.Block;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemGroup;
@@ -27,11 +26,13 @@ public abstract class LanguageGenerator extends ResourceGenerator {
 
     @Override
     public void save(){
-        // Convert all translations to a json object
-        JsonObject object = new JsonObject();
-        this.translations.forEach(object::addProperty);
-        // Save the object to the cache
-        this.cache.saveJsonResource(ResourceType.ASSET, object, this.modid, "lang", this.langCode);
+        // Write all translations straight to the cache
+        this.cache.saveJsonResource(ResourceType.ASSET, writer -> {
+            writer.beginObject();
+            for(Map.Entry<String,String> translation : this.translations.entrySet())
+                writer.name(translation.getKey()).value(translation.getValue());
+            writer.endObject();
+        }, this.modid, "lang", this.langCode);
     }
 
     /**
@@ -77,6 +78,6 @@ public abstract class LanguageGenerator extends ResourceGenerator {
     }
 
     public String getName(){
-        return this.modName + " Language Generator";
+        return this.modName + " Language Generator (" + this.langCode + ")";
     }
 }
@@ -2,6 +2,7 @@ package com.supermartijn642.core.generator;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.supermartijn642.core.CoreLib;
 import com.supermartijn642.core.registry.Registries;
 import com.supermartijn642.core.registry.RegistryUtil;
 import net.minecraft.client.renderer.color.IBlockColor;
@@ -12,10 +13,7 @@ import net.minecraft.util.IItemProvider;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.vector.Vector3f;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -33,6 +31,17 @@ public abstract class ModelGenerator extends ResourceGenerator {
 
     @Override
     public void save(){
+        if(this.deduplicateModels()){
+            // Convert all models first, such that identical models can be found
+            Map<ResourceLocation,JsonObject> jsons = new HashMap<>();
+            for(ModelBuilder modelBuilder : this.models.values())
+                jsons.put(modelBuilder.identifier, this.convertToJson(modelBuilder));
+            this.deduplicate(jsons);
+            for(Map.Entry<ResourceLocation,JsonObject> entry : jsons.entrySet())
+                this.cache.saveJsonResource(ResourceType.ASSET, entry.getValue(), entry.getKey().getNamespace(), "models", entry.getKey().getPath());
+            return;
+        }
+
         // Loop over all models
         for(ModelBuilder modelBuilder : this.models.values()){
             JsonObject json = this.convertToJson(modelBuilder);
@@ -43,6 +52,51 @@ public abstract class ModelGenerator extends ResourceGenerator {
         }
     }
 
+    /**
+     * Whether models with identical contents should be replaced by a model which only references one of them as its parent.
+     * Block state generators which share the resource cache and are saved after this generator point at the canonical models directly, e.g. when generating in parallel.
+     * Other references still load and bake a separate model for every location.
+     */
+    protected boolean deduplicateModels(){
+        return false;
+    }
+
+    private void deduplicate(Map<ResourceLocation,JsonObject> jsons){
+        // Group models by their contents
+        Map<JsonObject,List<ResourceLocation>> groups = new HashMap<>();
+        for(Map.Entry<ResourceLocation,JsonObject> entry : jsons.entrySet()){
+            JsonObject json = entry.getValue();
+            // Ambient occlusion is inherited from parent models, but models which change it or their render type are kept as they are, such that their settings stay explicit
+            // Models which only have a parent gain nothing
+            if(json.has("ambientocclusion") || json.has("render_type") || (json.entrySet().size() == 1 && json.has("parent")))
+                continue;
+            groups.computeIfAbsent(json, j -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        int replacedModels = 0, canonicalModels = 0;
+        long savedBytes = 0;
+        for(Map.Entry<JsonObject,List<ResourceLocation>> group : groups.entrySet()){
+            if(group.getValue().size() < 2)
+                continue;
+            // Pick the first location such that the same model is kept every run
+            ResourceLocation canonical = Collections.min(group.getValue(), Comparator.comparing(ResourceLocation::toString));
+            JsonObject reference = new JsonObject();
+            reference.addProperty("parent", canonical.toString());
+            for(ResourceLocation location : group.getValue()){
+                if(location.equals(canonical))
+                    continue;
+                jsons.put(location, reference);
+                this.cache.putCanonicalModel(location, canonical);
+                replacedModels++;
+            }
+            canonicalModels++;
+            savedBytes += (long)(group.getValue().size() - 1) * (ResourceCache.getJsonSize(group.getKey()) - ResourceCache.getJsonSize(reference));
+        }
+
+        if(replacedModels > 0)
+            CoreLib.LOGGER.info("'" + this.getName() + "' replaced " + replacedModels + " duplicate models with references to " + canonicalModels + " models, saving " + savedBytes + " bytes.");
+    }
+
     protected JsonObject convertToJson(ModelBuilder modelBuilder){
         JsonObject json = new JsonObject();
 
@@ -0,0 +1,199 @@
+package com.supermartijn642.core.generator;
+
+import com.google.common.hash.Hashing;
+import net.minecraft.data.DirectoryCache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Created 12/08/2022 by SuperMartijn642
+ * <p>
+ * Index of the files in a data generator's output directory, used to check whether generated data changed without hashing it with SHA-1 or checking the file system for every file.
+ * The existing files are found with a single walk of the output directory. For every generated file, its size and a fast hash are stored next to its SHA-1 hash, which is still the hash stored in the {@link DirectoryCache}.
+ * The index is stored once at the end of a data generator run.
+ */
+public final class OutputIndex {
+
+    private static final Map<DirectoryCache,OutputIndex> INDICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Gives the index for the given cache, all resource caches for one data generator run share the same index.
+     */
+    static OutputIndex get(DirectoryCache cache, Path outputDirectory){
+        return INDICES.computeIfAbsent(cache, c -> new OutputIndex(outputDirectory));
+    }
+
+    /**
+     * Stores and discards the index for the given cache. Called when the data generator run which the cache belongs to ends.
+     */
+    public static void finish(DirectoryCache cache){
+        OutputIndex index = INDICES.remove(cache);
+        if(index != null)
+            index.save();
+    }
+
+    @SuppressWarnings("UnstableApiUsage")
+    static long fastHash(byte[] data){
+        return Hashing.murmur3_128().hashBytes(data).asLong();
+    }
+
+    private final Path outputDirectory;
+    private final Path indexFile;
+    private Set<Path> existingFiles;
+    private Map<Path,Entry> entries;
+    /**
+     * Files which were generated during this run, only these are stored
+     */
+    private final Set<Path> generatedFiles = new HashSet<>();
+
+    private OutputIndex(Path outputDirectory){
+        this.outputDirectory = outputDirectory;
+        this.indexFile = outputDirectory.resolve(".cache").resolve("supermartijn642corelib").resolve("output_hashes");
+    }
+
+    /**
+     * @return whether a file exists at the given path relative to the output directory
+     */
+    synchronized boolean exists(Path path){
+        return this.getExistingFiles().contains(path);
+    }
+
+    /**
+     * Checks whether the given data matches the file stored at the given path, based on the file's size and fast hash.
+     * @return the file's SHA-1 hash if it matches, otherwise {@code null}
+     */
+    synchronized String getUnchangedHash(Path path, int size, long fastHash, String cachedHash){
+        Entry entry = this.getEntries().get(path);
+        if(entry == null || entry.size != size || entry.fastHash != fastHash || !entry.hash.equals(cachedHash) || !this.exists(path))
+            return null;
+        this.generatedFiles.add(path);
+        return entry.hash;
+    }
+
+    /**
+     * Checks whether the file at the given path still has the given SHA-1 hash by reading it. When the index holds an entry with the given hash,
+     * only the file's size and fast hash are compared rather than computing the SHA-1 hash.
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    boolean isFileUnchanged(Path path, String hash){
+        Entry entry;
+        synchronized(this){
+            if(!this.exists(path))
+                return false;
+            entry = this.getEntries().get(path);
+        }
+        // Read the file outside the lock, such that multiple files can be checked at once
+        byte[] data;
+        try{
+            data = Files.readAllBytes(this.outputDirectory.resolve(path));
+        }catch(IOException e){
+            return false;
+        }
+        if(entry != null && entry.hash.equals(hash))
+            return entry.size == data.length && entry.fastHash == fastHash(data);
+        return Hashing.sha1().hashBytes(data).toString().equals(hash);
+    }
+
+    /**
+     * Records the size and hashes of a file written at the given path.
+     */
+    synchronized void update(Path path, int size, long fastHash, String hash){
+        this.getEntries().put(path, new Entry(size, fastHash, hash));
+        this.getExistingFiles().add(path);
+        this.generatedFiles.add(path);
+    }
+
+    /**
+     * Keeps the entry of an unchanged file, if the entry matches the given hash.
+     */
+    synchronized void keep(Path path, String hash){
+        Entry entry = this.getEntries().get(path);
+        if(entry != null && !entry.hash.equals(hash))
+            this.entries.remove(path);
+        this.generatedFiles.add(path);
+    }
+
+    /**
+     * Stores the index, such that it can be used in the next run. Only files generated during this run are stored, as other files are removed at the end of the run.
+     */
+    private synchronized void save(){
+        if(this.entries == null)
+            return;
+        try{
+            Files.createDirectories(this.indexFile.getParent());
+            try(BufferedWriter writer = Files.newBufferedWriter(this.indexFile, StandardCharsets.UTF_8)){
+                for(Path path : this.generatedFiles){
+                    Entry entry = this.entries.get(path);
+                    if(entry == null)
+                        continue;
+                    writer.write(entry.hash + " " + entry.size + " " + Long.toHexString(entry.fastHash) + " " + toString(path));
+                    writer.newLine();
+                }
+            }
+        }catch(IOException e){
+            throw new RuntimeException("Failed to save output index '" + this.indexFile + "'!", e);
+        }
+    }
+
+    private Set<Path> getExistingFiles(){
+        if(this.existingFiles == null){
+            this.existingFiles = new HashSet<>();
+            if(Files.isDirectory(this.outputDirectory)){
+                try(Stream<Path> files = Files.walk(this.outputDirectory)){
+                    files.filter(Files::isRegularFile).map(this.outputDirectory::relativize).forEach(this.existingFiles::add);
+                }catch(IOException e){
+                    throw new RuntimeException("Failed to index output directory '" + this.outputDirectory + "'!", e);
+                }
+            }
+        }
+        return this.existingFiles;
+    }
+
+    private Map<Path,Entry> getEntries(){
+        if(this.entries == null){
+            this.entries = new HashMap<>();
+            if(Files.exists(this.indexFile)){
+                try(BufferedReader reader = Files.newBufferedReader(this.indexFile, StandardCharsets.UTF_8)){
+                    String line;
+                    while((line = reader.readLine()) != null){
+                        String[] parts = line.split(" ", 4);
+                        if(parts.length == 4)
+                            this.entries.put(Paths.get(parts[3]), new Entry(Integer.parseInt(parts[1]), Long.parseUnsignedLong(parts[2], 16), parts[0]));
+                    }
+                }catch(IOException | RuntimeException e){
+                    // A corrupt index only means files have to be hashed again
+                    this.entries.clear();
+                }
+            }
+        }
+        return this.entries;
+    }
+
+    private static String toString(Path path){
+        StringJoiner joiner = new StringJoiner("/");
+        for(Path part : path)
+            joiner.add(part.toString());
+        return joiner.toString();
+    }
+
+    private static class Entry {
+
+        private final int size;
+        private final long fastHash;
+        private final String hash;
+
+        private Entry(int size, long fastHash, String hash){
+            this.size = size;
+            this.fastHash = fastHash;
+            this.hash = hash;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.supermartijn642.core.generator;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import com.supermartijn642.core.data.condition.ModLoadedResourceCondition;
 import com.supermartijn642.core.data.condition.NotResourceCondition;
 import com.supermartijn642.core.data.condition.ResourceCondition;
@@ -23,6 +23,7 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.crafting.CraftingHelper;
 import net.minecraftforge.common.crafting.conditions.ICondition;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -45,14 +46,8 @@ public abstract class RecipeGenerator extends ResourceGenerator {
 
         // Loop over all recipes
         for(RecipeBuilder<?> recipeBuilder : this.recipes.values()){
-            JsonObject json = new JsonObject();
-
-            // Set the recipe serializer
-            json.addProperty("type", Registries.RECIPE_SERIALIZERS.getIdentifier(recipeBuilder.serializer).toString());
-
-            // Filter by recipe builder
+            // Verify all keys are defined
             if(recipeBuilder instanceof ShapedRecipeBuilder){
-                // Verify all keys are defined
                 Set<Character> characters = new HashSet<>();
                 for(String row : ((ShapedRecipeBuilder)recipeBuilder).pattern){
                     for(char c : row.toCharArray()){
@@ -64,107 +59,134 @@ public abstract class RecipeGenerator extends ResourceGenerator {
                     if(!characters.contains(character))
                         throw new RuntimeException("Recipe '" + recipeBuilder.identifier + "' has unused input with key '" + character + "'!");
                 }
-
-                // Group
-                json.addProperty("group", recipeBuilder.group);
-                // Pattern
-                json.add("pattern", createArray(((ShapedRecipeBuilder)recipeBuilder).pattern));
-                // Keys
-                JsonObject keysJson = new JsonObject();
-                for(Map.Entry<Character,Ingredient> input : ((ShapedRecipeBuilder)recipeBuilder).inputs.entrySet())
-                    keysJson.add(input.getKey().toString(), input.getValue().toJson());
-                json.add("key", keysJson);
-                // Result
-                JsonObject resultJson = new JsonObject();
-                resultJson.addProperty("item", Registries.ITEMS.getIdentifier(recipeBuilder.output.asItem()).toString());
-                if(recipeBuilder.outputCount != 1)
-                    resultJson.addProperty("count", recipeBuilder.outputCount);
-                if(recipeBuilder.outputTag != null)
-                    resultJson.addProperty("nbt", recipeBuilder.outputTag.toString());
-                json.add("result", resultJson);
-
-            }else if(recipeBuilder instanceof ShapelessRecipeBuilder){
-                // Group
-                json.addProperty("group", recipeBuilder.group);
-                // Ingredients
-                JsonArray ingredientsJson = new JsonArray();
-                for(Ingredient input : ((ShapelessRecipeBuilder)recipeBuilder).inputs)
-                    ingredientsJson.add(input.toJson());
-                json.add("ingredients", ingredientsJson);
-                // Result
-                JsonObject resultJson = new JsonObject();
-                resultJson.addProperty("item", Registries.ITEMS.getIdentifier(recipeBuilder.output.asItem()).toString());
-                if(recipeBuilder.outputCount != 1)
-                    resultJson.addProperty("count", recipeBuilder.outputCount);
-                if(recipeBuilder.outputTag != null)
-                    resultJson.addProperty("nbt", recipeBuilder.outputTag.toString());
-                json.add("result", resultJson);
-
-            }else if(recipeBuilder instanceof SmeltingRecipeBuilder){
-                if(((SmeltingRecipeBuilder)recipeBuilder).includeSmelting){
-                    json.addProperty("type", "minecraft:smelting");
-                    serializeCookingRecipe(json, (SmeltingRecipeBuilder)recipeBuilder, 1, 200);
-                }
-                if(((SmeltingRecipeBuilder)recipeBuilder).includeBlasting){
-                    json.addProperty("type", "minecraft:blasting");
-                    serializeCookingRecipe(json, (SmeltingRecipeBuilder)recipeBuilder, 2, 100);
-                }
-                if(((SmeltingRecipeBuilder)recipeBuilder).includeSmoking){
-                    json.addProperty("type", "minecraft:smoking");
-                    serializeCookingRecipe(json, (SmeltingRecipeBuilder)recipeBuilder, 2, 100);
-                }
-                if(((SmeltingRecipeBuilder)recipeBuilder).includeCampfire){
-                    json.addProperty("type", "minecraft:campfire_cooking");
-                    serializeCookingRecipe(json, (SmeltingRecipeBuilder)recipeBuilder, 2, 100);
-                }
-            }else if(recipeBuilder instanceof SmithingRecipeBuilder){
-                // Group
-                json.addProperty("group", recipeBuilder.group);
-                // Base
-                json.add("base", ((SmithingRecipeBuilder)recipeBuilder).base.toJson());
-                // Addition
-                json.add("addition", ((SmithingRecipeBuilder)recipeBuilder).addition.toJson());
-                // Result
-                JsonObject resultJson = new JsonObject();
-                resultJson.addProperty("item", Registries.ITEMS.getIdentifier(recipeBuilder.output.asItem()).toString());
-                if(recipeBuilder.outputCount != 1)
-                    resultJson.addProperty("count", recipeBuilder.outputCount);
-                if(recipeBuilder.outputTag != null)
-                    resultJson.addProperty("nbt", recipeBuilder.outputTag.toString());
-                json.add("result", resultJson);
-
-            }else if(recipeBuilder instanceof StoneCuttingRecipeBuilder){
-                // Group
-                json.addProperty("group", recipeBuilder.group);
-                // Ingredient
-                json.add("ingredient", ((StoneCuttingRecipeBuilder)recipeBuilder).input.toJson());
-                // Result
-                json.addProperty("result", Registries.ITEMS.getIdentifier(recipeBuilder.output.asItem()).toString());
-                // Count
-                json.addProperty("count", recipeBuilder.outputCount);
             }
 
-            // Conditions
-            if(!recipeBuilder.conditions.isEmpty()){
-                JsonObject newJson = new JsonObject();
-                newJson.addProperty("type", Registries.RECIPE_SERIALIZERS.getIdentifier(ConditionalRecipeSerializer.INSTANCE).toString());
-                JsonArray conditionsJson = new JsonArray();
-                for(ICondition condition : recipeBuilder.conditions)
-                    conditionsJson.add(CraftingHelper.serialize(condition));
-                newJson.add("conditions", conditionsJson);
-                newJson.add("recipe", json);
-                json = newJson;
-            }
-
-            // Save the object to the cache
+            // Write the recipe straight to the cache
             ResourceLocation identifier = recipeBuilder.identifier;
-            this.cache.saveJsonResource(ResourceType.DATA, json, identifier.getNamespace(), "recipes", identifier.getPath());
+            this.cache.saveJsonResource(ResourceType.DATA, writer -> {
+                if(recipeBuilder.conditions.isEmpty()){
+                    writeRecipe(writer, recipeBuilder);
+                    return;
+                }
+                // Conditions
+                writer.beginObject();
+                writer.name("type").value(Registries.RECIPE_SERIALIZERS.getIdentifier(ConditionalRecipeSerializer.INSTANCE).toString());
+                writer.name("conditions").beginArray();
+                for(ICondition condition : recipeBuilder.conditions)
+                    ResourceCache.writeJson(writer, CraftingHelper.serialize(condition));
+                writer.endArray();
+                writer.name("recipe");
+                writeRecipe(writer, recipeBuilder);
+                writer.endObject();
+            }, identifier.getNamespace(), "recipes", identifier.getPath());
         }
 
         // Save the advancements
         this.advancements.save();
     }
 
+    private static void writeRecipe(JsonWriter writer, RecipeBuilder<?> recipeBuilder) throws IOException{
+        // The type of cooking recipes is overwritten for every included cooking type, hence they are still converted to a json object first
+        if(recipeBuilder instanceof SmeltingRecipeBuilder){
+            ResourceCache.writeJson(writer, serializeCookingRecipe((SmeltingRecipeBuilder)recipeBuilder));
+            return;
+        }
+
+        writer.beginObject();
+        // Set the recipe serializer
+        writer.name("type").value(Registries.RECIPE_SERIALIZERS.getIdentifier(recipeBuilder.serializer).toString());
+
+        // Filter by recipe builder
+        if(recipeBuilder instanceof ShapedRecipeBuilder){
+            // Group
+            writer.name("group").value(recipeBuilder.group);
+            // Pattern
+            writer.name("pattern").beginArray();
+            for(String row : ((ShapedRecipeBuilder)recipeBuilder).pattern)
+                writer.value(row);
+            writer.endArray();
+            // Keys
+            writer.name("key").beginObject();
+            for(Map.Entry<Character,Ingredient> input : ((ShapedRecipeBuilder)recipeBuilder).inputs.entrySet()){
+                writer.name(input.getKey().toString());
+                ResourceCache.writeJson(writer, input.getValue().toJson());
+            }
+            writer.endObject();
+            // Result
+            writer.name("result");
+            writeResult(writer, recipeBuilder);
+
+        }else if(recipeBuilder instanceof ShapelessRecipeBuilder){
+            // Group
+            writer.name("group").value(recipeBuilder.group);
+            // Ingredients
+            writer.name("ingredients").beginArray();
+            for(Ingredient input : ((ShapelessRecipeBuilder)recipeBuilder).inputs)
+                ResourceCache.writeJson(writer, input.toJson());
+            writer.endArray();
+            // Result
+            writer.name("result");
+            writeResult(writer, recipeBuilder);
+
+        }else if(recipeBuilder instanceof SmithingRecipeBuilder){
+            // Group
+            writer.name("group").value(recipeBuilder.group);
+            // Base
+            writer.name("base");
+            ResourceCache.writeJson(writer, ((SmithingRecipeBuilder)recipeBuilder).base.toJson());
+            // Addition
+            writer.name("addition");
+            ResourceCache.writeJson(writer, ((SmithingRecipeBuilder)recipeBuilder).addition.toJson());
+            // Result
+            writer.name("result");
+            writeResult(writer, recipeBuilder);
+
+        }else if(recipeBuilder instanceof StoneCuttingRecipeBuilder){
+            // Group
+            writer.name("group").value(recipeBuilder.group);
+            // Ingredient
+            writer.name("ingredient");
+            ResourceCache.writeJson(writer, ((StoneCuttingRecipeBuilder)recipeBuilder).input.toJson());
+            // Result
+            writer.name("result").value(Registries.ITEMS.getIdentifier(recipeBuilder.output.asItem()).toString());
+            // Count
+            writer.name("count").value(recipeBuilder.outputCount);
+        }
+        writer.endObject();
+    }
+
+    private static void writeResult(JsonWriter writer, RecipeBuilder<?> recipeBuilder) throws IOException{
+        writer.beginObject();
+        writer.name("item").value(Registries.ITEMS.getIdentifier(recipeBuilder.output.asItem()).toString());
+        if(recipeBuilder.outputCount != 1)
+            writer.name("count").value(recipeBuilder.outputCount);
+        if(recipeBuilder.outputTag != null)
+            writer.name("nbt").value(recipeBuilder.outputTag.toString());
+        writer.endObject();
+    }
+
+    private static JsonObject serializeCookingRecipe(SmeltingRecipeBuilder recipeBuilder){
+        JsonObject json = new JsonObject();
+        json.addProperty("type", Registries.RECIPE_SERIALIZERS.getIdentifier(((RecipeBuilder<?>)recipeBuilder).serializer).toString());
+        if(recipeBuilder.includeSmelting){
+            json.addProperty("type", "minecraft:smelting");
+            serializeCookingRecipe(json, recipeBuilder, 1, 200);
+        }
+        if(recipeBuilder.includeBlasting){
+            json.addProperty("type", "minecraft:blasting");
+            serializeCookingRecipe(json, recipeBuilder, 2, 100);
+        }
+        if(recipeBuilder.includeSmoking){
+            json.addProperty("type", "minecraft:smoking");
+            serializeCookingRecipe(json, recipeBuilder, 2, 100);
+        }
+        if(recipeBuilder.includeCampfire){
+            json.addProperty("type", "minecraft:campfire_cooking");
+            serializeCookingRecipe(json, recipeBuilder, 2, 100);
+        }
+        return json;
+    }
+
     private static void serializeCookingRecipe(JsonObject json, SmeltingRecipeBuilder recipeBuilder, int durationDivider, int defaultDuration){
         // Group
         json.addProperty("group", ((RecipeBuilder<?>)recipeBuilder).group);
@@ -191,13 +213,6 @@ public abstract class RecipeGenerator extends ResourceGenerator {
             json.addProperty("cookingtime", duration);
     }
 
-    private static JsonArray createArray(Iterable<String> elements){
-        JsonArray array = new JsonArray();
-        for(String element : elements)
-            array.add(element);
-        return array;
-    }
-
     protected <T extends RecipeBuilder<T>> T recipe(ResourceLocation recipeLocation, T builder){
         if(this.recipes.containsKey(recipeLocation))
             throw new RuntimeException("Duplicate recipe '" + recipeLocation + "' of types '" + this.recipes.get(recipeLocation).getClass().getName() + "' and '" + builder.getClass().getName() + "'!");
@@ -4,29 +4,36 @@ import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import net.minecraft.data.DirectoryCache;
 import net.minecraft.resources.ResourcePackType;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.data.ExistingFileHelper;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Created 16/08/2022 by SuperMartijn642
+ * <p>
+ * Resource caches may be used by multiple generators at once when generating in parallel, hence implementations must be thread-safe.
  */
 public abstract class ResourceCache {
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final ThreadLocal<ByteArrayOutputStream> JSON_BUFFER = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(8192));
 
     /**
      * Checks whether a resource exists. The resource may be either a generated file, or a file from a loaded resource pack.
@@ -52,6 +59,7 @@ public abstract class ResourceCache {
 
     /**
      * Saves the given data in the appropriate location. Also checks if a file is already present to avoid redundant writes.
+     * The data may be written in the background, use {@link #flush()} to wait for all data to be written.
      * @param resourceType whether the given data is part of the server data or the client assets
      * @param namespace    the namespace which the data should be saved under
      * @param directory    name of the directory within the namespace
@@ -69,8 +77,39 @@ public abstract class ResourceCache {
      * @param fileName     name of the file
      */
     public void saveJsonResource(ResourceType resourceType, JsonObject json, String namespace, String directory, String fileName){
-        byte[] bytes = GSON.toJson(json).getBytes(StandardCharsets.UTF_8);
-        this.saveResource(resourceType, bytes, namespace, directory, fileName, fileName.endsWith(".json") ? "" : ".json");
+        this.saveJsonResource(resourceType, writer -> GSON.toJson(json, writer), namespace, directory, fileName);
+    }
+
+    /**
+     * Saves json written by the given content in the appropriate location, without building a json tree first. Also checks if a file is already present to avoid redundant writes.
+     * The json is formatted the same as {@link #saveJsonResource(ResourceType, JsonObject, String, String, String)}.
+     * @param resourceType whether the given data is part of the server data or the client assets
+     * @param content      writes the data to be saved
+     * @param namespace    the namespace which the data should be saved under
+     * @param directory    name of the directory within the namespace
+     * @param fileName     name of the file
+     */
+    public void saveJsonResource(ResourceType resourceType, JsonContent content, String namespace, String directory, String fileName){
+        // Serialize straight to bytes rather than to a string first
+        ByteArrayOutputStream buffer = JSON_BUFFER.get();
+        buffer.reset();
+        try{
+            Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+            JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+            content.write(jsonWriter);
+            jsonWriter.flush();
+        }catch(IOException e){
+            throw new RuntimeException(e);
+        }
+        this.saveResource(resourceType, buffer.toByteArray(), namespace, directory, fileName, fileName.endsWith(".json") ? "" : ".json");
+    }
+
+    /**
+     * Writes the given json element to the given writer, formatted the same as {@link #saveJsonResource(ResourceType, JsonObject, String, String, String)}.
+     * Allows {@link JsonContent} to include json elements created elsewhere, e.g. serialized ingredients.
+     */
+    static void writeJson(JsonWriter writer, JsonElement json){
+        GSON.toJson(json, writer);
     }
 
     /**
@@ -84,42 +123,154 @@ public abstract class ResourceCache {
      */
     public abstract Optional<InputStream> getManualResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension);
 
+    /**
+     * Waits for all saved resources to be written. Any failure whilst writing a resource is thrown from here.
+     */
+    public void flush(){
+    }
+
+    /**
+     * Checks whether a resource saved in the previous run is still present with the given hash.
+     */
+    boolean isResourceUnchanged(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+        return false;
+    }
+
+    /**
+     * Keeps a resource from the previous run as if it was saved again with the given hash.
+     * Does nothing by default, as resources are never reported unchanged by {@link #isResourceUnchanged(ResourceType, String, String, String, String, String)} unless a cache overrides it.
+     */
+    void keepResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+    }
+
+    /**
+     * @return the hash of a resource saved during this run, or {@code null} if unknown
+     */
+    String getSavedResourceHash(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        return null;
+    }
+
+    /**
+     * Records that the given model was replaced by a model which only references the given canonical model, see {@link ModelGenerator#deduplicateModels()}.
+     * Does nothing by default, caches which are shared between generators override this.
+     */
+    void putCanonicalModel(ResourceLocation model, ResourceLocation canonicalModel){
+    }
+
+    /**
+     * @return the canonical model the given model refers to, or the given model if it was not replaced
+     */
+    ResourceLocation getCanonicalModel(ResourceLocation model){
+        return model;
+    }
+
+    /**
+     * Gives the size in bytes of the given json when saved through {@link #saveJsonResource(ResourceType, JsonObject, String, String, String)}.
+     */
+    static int getJsonSize(JsonElement json){
+        return GSON.toJson(json).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Writes json content to a {@link JsonWriter}.
+     */
+    public interface JsonContent {
+
+        void write(JsonWriter writer) throws IOException;
+    }
+
     static ResourceCache wrap(ExistingFileHelper existingFileHelper, DirectoryCache cachedOutput, Path outputDirectory){
-        return new ExistingFileHelperWrapper(existingFileHelper, cachedOutput, outputDirectory);
+        return new ExistingFileHelperWrapper(existingFileHelper, cachedOutput, outputDirectory, null);
+    }
+
+    /**
+     * Wraps the given file helper such that all saved resources are written to a single zip file next to the output directory upon {@link #flush()}.
+     * The zip file is placed outside the output directory, as the output directory is usually part of the mod's resources.
+     */
+    static ResourceCache wrapZip(ExistingFileHelper existingFileHelper, DirectoryCache cachedOutput, Path outputDirectory, String zipFileName){
+        if(zipFileName == null || !zipFileName.endsWith(".zip"))
+            throw new IllegalArgumentException("Zip file name must end with '.zip'!");
+        Path parent = outputDirectory.toAbsolutePath().getParent();
+        if(parent == null)
+            throw new IllegalArgumentException("Output directory '" + outputDirectory + "' must have a parent directory to place the zip file in!");
+        return new ExistingFileHelperWrapper(existingFileHelper, cachedOutput, outputDirectory, parent.resolve(zipFileName));
     }
 
     private static class ExistingFileHelperWrapper extends ResourceCache {
 
+        private static final int WRITER_THREADS = 2;
+        private static final int MAX_QUEUED_WRITES = 256;
+        /**
+         * Fixed timestamp for zip entries. Zip entries store a local date and time without time zone
+         */
+        private static final LocalDateTime ZIP_ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0, 0);
+
         private final Map<Path,HashCode> writtenFiles = new HashMap<>();
+        private final Map<Path,byte[]> pendingWrites = new ConcurrentHashMap<>();
+        private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+        private ThreadPoolExecutor writeExecutor;
+        private RuntimeException writeFailure;
 
         private final ExistingFileHelper existingFileHelper;
         private final Path outputDirectory;
         private final DirectoryCache cache;
+        private final OutputIndex outputIndex;
+        private final Path zipFile;
+        private final Map<String,byte[]> zipEntries = new TreeMap<>();
+        /**
+         * Existence index, remembers the result of every check against the file helper. Lookups are not synchronized, such that generators generating in parallel do not wait on each other.
+         * The file helper is only modified when tracking resources, which does not happen at the same time as lookups, see {@link ResourceGenerator#generate()}.
+         */
+        private final Set<ResourceKey> existingResources = ConcurrentHashMap.newKeySet();
+        private final Set<ResourceKey> missingResources = ConcurrentHashMap.newKeySet();
+        /**
+         * Reusable key for lookups in the existence index, such that checking a known resource does not allocate
+         */
+        private final ThreadLocal<ResourceKey> lookupKey = ThreadLocal.withInitial(ResourceKey::new);
+        private final Map<ResourceLocation,ResourceLocation> canonicalModels = new ConcurrentHashMap<>();
 
-        private ExistingFileHelperWrapper(ExistingFileHelper existingFileHelper, DirectoryCache hashCache, Path outputFolder){
+        private ExistingFileHelperWrapper(ExistingFileHelper existingFileHelper, DirectoryCache hashCache, Path outputFolder, Path zipFile){
             if(outputFolder == null)
                 throw new IllegalArgumentException("Output directory must not be null!");
             this.outputDirectory = outputFolder;
             this.existingFileHelper = existingFileHelper;
             this.cache = hashCache;
+            this.outputIndex = OutputIndex.get(hashCache, outputFolder);
+            this.zipFile = zipFile;
         }
 
         @Override
         public boolean doesResourceExist(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+            // Check the index first, only resources which were not checked before are looked up in the file helper
+            ResourceKey key = this.lookupKey.get().set(resourceType, namespace, directory, fileName, extension);
+            if(this.existingResources.contains(key))
+                return true;
+            if(this.missingResources.contains(key))
+                return false;
+
             ResourceLocation location = new ResourceLocation(namespace, directory + "/" + fileName + extension);
-            return this.existingFileHelper.exists(location, resourceType == ResourceType.DATA ? ResourcePackType.SERVER_DATA : ResourcePackType.CLIENT_RESOURCES);
+            boolean exists = this.existingFileHelper.exists(location, resourceType == ResourceType.DATA ? ResourcePackType.SERVER_DATA : ResourcePackType.CLIENT_RESOURCES);
+            (exists ? this.existingResources : this.missingResources).add(key.copy());
+            return exists;
         }
 
         @Override
-        public void trackToBeGeneratedResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        public synchronized void trackToBeGeneratedResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
             ResourceLocation location = new ResourceLocation(namespace, fileName);
             this.existingFileHelper.trackGenerated(location, resourceType == ResourceType.DATA ? ResourcePackType.SERVER_DATA : ResourcePackType.CLIENT_RESOURCES, extension, directory);
+            ResourceKey key = new ResourceKey().set(resourceType, namespace, directory, fileName, extension);
+            this.missingResources.remove(key);
+            this.existingResources.add(key);
         }
 
         @Override
-        public Optional<InputStream> getManualResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+        public synchronized Optional<InputStream> getManualResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
             Path path = this.constructPath(resourceType, namespace, directory, fileName, extension);
             Path fullPath = this.outputDirectory.resolve(path);
+            // The file may not have been written yet
+            byte[] pendingData = this.zipFile == null ? this.pendingWrites.get(fullPath) : this.zipEntries.get(toZipEntryName(path));
+            if(pendingData != null)
+                return Optional.of(new ByteArrayInputStream(pendingData));
             if(!Files.exists(fullPath))
                 return Optional.empty();
             try{
@@ -135,29 +286,269 @@ public abstract class ResourceCache {
 
         @SuppressWarnings("UnstableApiUsage")
         @Override
-        public void saveResource(ResourceType resourceType, byte[] data, String namespace, String directory, String fileName, String extension){
+        public synchronized void saveResource(ResourceType resourceType, byte[] data, String namespace, String directory, String fileName, String extension){
             Path path = this.constructPath(resourceType, namespace, directory, fileName, extension);
             Path fullPath = this.outputDirectory.resolve(path);
             if(this.writtenFiles.containsKey(path) || this.cache.newCache.containsKey(fullPath))
                 throw new RuntimeException("Duplicate file '" + path + "'!");
+            // The file helper may know about the resource once it is written
+            this.missingResources.remove(this.lookupKey.get().set(resourceType, namespace, directory, fileName, extension));
 
-            // Skip writing if the present file matches the one to be written
+            // Collect the data to be written to the zip file
+            if(this.zipFile != null){
+                this.zipEntries.put(toZipEntryName(path), data);
+                this.writtenFiles.put(path, null);
+                return;
+            }
+
+            // Skip writing if the present file matches the one to be written, first compare the size and a fast hash to avoid computing the SHA-1 hash
+            String cachedHash = this.cache.getHash(fullPath);
+            long fastHash = OutputIndex.fastHash(data);
+            String unchangedHash = cachedHash == null ? null : this.outputIndex.getUnchangedHash(path, data.length, fastHash, cachedHash);
+            if(unchangedHash != null){
+                this.writtenFiles.put(path, HashCode.fromString(unchangedHash));
+                this.cache.putNew(fullPath, unchangedHash);
+                return;
+            }
             HashCode hashCode = Hashing.sha1().hashBytes(data);
-            if(hashCode.toString().equals(this.cache.getHash(fullPath)) && fullPath.toFile().exists()){
+            boolean unchanged = hashCode.toString().equals(cachedHash) && this.outputIndex.exists(path);
+            this.outputIndex.update(path, data.length, fastHash, hashCode.toString());
+            if(unchanged){
                 this.writtenFiles.put(path, hashCode);
                 this.cache.putNew(fullPath, hashCode.toString());
                 return;
             }
 
-            // Write the data to file
-            fullPath.getParent().toFile().mkdirs();
-            try(OutputStream outputStream = Files.newOutputStream(fullPath)){
-                outputStream.write(data);
-            }catch(IOException e){
-                throw new RuntimeException(e);
-            }
+            // Queue the data to be written to file
+            this.pendingWrites.put(fullPath, data);
+            this.getWriteExecutor().execute(() -> this.write(fullPath, data));
             this.writtenFiles.put(path, hashCode);
             this.cache.putNew(fullPath, hashCode.toString());
         }
+
+        @Override
+        boolean isResourceUnchanged(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+            // Outputs in a zip file cannot be kept between runs
+            if(this.zipFile != null)
+                return false;
+            Path path = this.constructPath(resourceType, namespace, directory, fileName, extension);
+            // The file's contents are checked as well, as the file may have been edited since the previous run
+            return hash.equals(this.cache.getHash(this.outputDirectory.resolve(path))) && this.outputIndex.isFileUnchanged(path, hash);
+        }
+
+        @Override
+        synchronized void keepResource(ResourceType resourceType, String namespace, String directory, String fileName, String extension, String hash){
+            Path path = this.constructPath(resourceType, namespace, directory, fileName, extension);
+            Path fullPath = this.outputDirectory.resolve(path);
+            if(this.writtenFiles.containsKey(path) || this.cache.newCache.containsKey(fullPath))
+                throw new RuntimeException("Duplicate file '" + path + "'!");
+
+            this.trackToBeGeneratedResource(resourceType, namespace, directory, fileName, extension);
+            this.outputIndex.keep(path, hash);
+            this.writtenFiles.put(path, HashCode.fromString(hash));
+            this.cache.putNew(fullPath, hash);
+        }
+
+        @Override
+        void putCanonicalModel(ResourceLocation model, ResourceLocation canonicalModel){
+            this.canonicalModels.put(model, canonicalModel);
+        }
+
+        @Override
+        ResourceLocation getCanonicalModel(ResourceLocation model){
+            return this.canonicalModels.getOrDefault(model, model);
+        }
+
+        @Override
+        synchronized String getSavedResourceHash(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+            HashCode hashCode = this.writtenFiles.get(this.constructPath(resourceType, namespace, directory, fileName, extension));
+            return hashCode == null ? null : hashCode.toString();
+        }
+
+        private void write(Path fullPath, byte[] data){
+            try{
+                Path directory = fullPath.getParent();
+                if(!this.createdDirectories.contains(directory)){
+                    Files.createDirectories(directory);
+                    this.createdDirectories.add(directory);
+                }
+                try(OutputStream outputStream = Files.newOutputStream(fullPath)){
+                    outputStream.write(data);
+                }
+            }catch(IOException | RuntimeException e){
+                synchronized(this.pendingWrites){
+                    if(this.writeFailure == null)
+                        this.writeFailure = new RuntimeException("Failed to write file '" + fullPath + "'!", e);
+                    else
+                        this.writeFailure.addSuppressed(e);
+                }
+            }finally{
+                this.pendingWrites.remove(fullPath, data);
+            }
+        }
+
+        private ThreadPoolExecutor getWriteExecutor(){
+            if(this.writeExecutor == null){
+                AtomicInteger threadIndex = new AtomicInteger();
+                // When the queue is full, the generator writes the file itself rather than queueing more data
+                this.writeExecutor = new ThreadPoolExecutor(WRITER_THREADS, WRITER_THREADS, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_WRITES), runnable -> {
+                    Thread thread = new Thread(runnable, "Resource Writer " + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+            }
+            return this.writeExecutor;
+        }
+
+        @Override
+        public synchronized void flush(){
+            if(this.writeExecutor != null){
+                this.writeExecutor.shutdown();
+                try{
+                    this.writeExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                this.writeExecutor = null;
+            }
+            synchronized(this.pendingWrites){
+                RuntimeException failure = this.writeFailure;
+                this.writeFailure = null;
+                if(failure != null)
+                    throw failure;
+            }
+            if(this.zipFile != null)
+                this.writeZipFile();
+        }
+
+        @SuppressWarnings("UnstableApiUsage")
+        private void writeZipFile(){
+            // Add a pack.mcmeta, such that the zip file is a valid resource pack
+            if(!this.zipEntries.containsKey("pack.mcmeta")){
+                JsonObject pack = new JsonObject();
+                pack.addProperty("pack_format", 6);
+                pack.addProperty("description", this.zipFile.getFileName().toString() + " generated resources");
+                JsonObject json = new JsonObject();
+                json.add("pack", pack);
+                this.zipEntries.put("pack.mcmeta", GSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+            }
+
+            // Entries are sorted by name and have a fixed timestamp, such that the same resources always give the same zip file
+            // ZipEntry#setTime converts to local time using the default time zone, hence the time is converted from the current default time zone,
+            // such that the stored time is the same in every time zone
+            long entryTime = ZIP_ENTRY_TIME.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try(ZipOutputStream zipStream = new ZipOutputStream(buffer)){
+                for(Map.Entry<String,byte[]> entry : this.zipEntries.entrySet()){
+                    ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                    zipEntry.setTime(entryTime);
+                    zipStream.putNextEntry(zipEntry);
+                    zipStream.write(entry.getValue());
+                    zipStream.closeEntry();
+                }
+            }catch(IOException e){
+                throw new RuntimeException("Failed to create zip file '" + this.zipFile + "'!", e);
+            }
+            byte[] data = buffer.toByteArray();
+
+            // Only write the zip file when it changed
+            String hash = Hashing.sha1().hashBytes(data).toString();
+            if(!hash.equals(this.cache.getHash(this.zipFile)) || !Files.exists(this.zipFile)){
+                try{
+                    Files.createDirectories(this.zipFile.getParent());
+                    Files.write(this.zipFile, data);
+                }catch(IOException e){
+                    throw new RuntimeException("Failed to write zip file '" + this.zipFile + "'!", e);
+                }
+            }
+            this.cache.putNew(this.zipFile, hash);
+        }
+
+        private static String toZipEntryName(Path path){
+            StringJoiner joiner = new StringJoiner("/");
+            for(Path part : path)
+                joiner.add(part.toString());
+            return joiner.toString();
+        }
+
+        /**
+         * Key of a resource in the existence index. Keys compare the resource's full path, such that different splits of the directory and file name give the same key.
+         * Keys are mutable, such that a single key can be reused for lookups.
+         */
+        private static final class ResourceKey {
+
+            private ResourceType resourceType;
+            private String namespace, directory, fileName, extension;
+            private int length, hash;
+
+            private ResourceKey set(ResourceType resourceType, String namespace, String directory, String fileName, String extension){
+                this.resourceType = resourceType;
+                this.namespace = namespace;
+                this.directory = directory;
+                this.fileName = fileName;
+                this.extension = extension;
+                this.length = namespace.length() + 1 + directory.length() + 1 + fileName.length() + extension.length();
+                int hash = resourceType.ordinal();
+                for(int i = 0; i < this.length; i++)
+                    hash = 31 * hash + this.charAt(i);
+                this.hash = hash;
+                return this;
+            }
+
+            private ResourceKey copy(){
+                ResourceKey copy = new ResourceKey();
+                copy.resourceType = this.resourceType;
+                copy.namespace = this.namespace;
+                copy.directory = this.directory;
+                copy.fileName = this.fileName;
+                copy.extension = this.extension;
+                copy.length = this.length;
+                copy.hash = this.hash;
+                return copy;
+            }
+
+            /**
+             * Gives the character at the given index of 'namespace/directory/fileName+extension' without creating the string
+             */
+            private char charAt(int index){
+                if(index < this.namespace.length())
+                    return this.namespace.charAt(index);
+                index -= this.namespace.length();
+                if(index == 0)
+                    return '/';
+                index--;
+                if(index < this.directory.length())
+                    return this.directory.charAt(index);
+                index -= this.directory.length();
+                if(index == 0)
+                    return '/';
+                index--;
+                if(index < this.fileName.length())
+                    return this.fileName.charAt(index);
+                return this.extension.charAt(index - this.fileName.length());
+            }
+
+            @Override
+            public boolean equals(Object o){
+                if(this == o)
+                    return true;
+                if(!(o instanceof ResourceKey))
+                    return false;
+                ResourceKey other = (ResourceKey)o;
+                if(this.hash != other.hash || this.length != other.length || this.resourceType != other.resourceType)
+                    return false;
+                for(int i = 0; i < this.length; i++){
+                    if(this.charAt(i) != other.charAt(i))
+                        return false;
+                }
+                return true;
+            }
+
+            @Override
+            public int hashCode(){
+                return this.hash;
+            }
+        }
     }
 }
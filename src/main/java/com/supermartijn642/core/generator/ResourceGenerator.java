@@ -11,8 +11,13 @@ import net.minecraftforge.fml.ModList;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.forgespi.language.IModInfo;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 /**
  * Created 04/08/2022 by SuperMartijn642
@@ -30,11 +35,17 @@ public abstract class ResourceGenerator {
             @Override
             public void run(DirectoryCache cachedOutput){
                 ResourceCache resourceCache = ResourceCache.wrap(existingFileHelper, cachedOutput, dataGenerator.getOutputFolder());
-                ResourceGenerator resourceGenerator = generator.apply(resourceCache);
+                IncrementalResourceCache generatorCache = new IncrementalResourceCache(resourceCache, dataGenerator.getOutputFolder());
+                ResourceGenerator resourceGenerator = generator.apply(generatorCache);
                 this.name = resourceGenerator.getName();
+                // Skip the resource generator if its inputs did not change
+                if(generatorCache.replay(resourceGenerator))
+                    return;
                 // Run the resource generator
                 resourceGenerator.generate();
                 resourceGenerator.save();
+                resourceCache.flush();
+                generatorCache.storeRecord(resourceGenerator);
             }
 
             @Override
@@ -44,6 +55,115 @@ public abstract class ResourceGenerator {
         };
     }
 
+    /**
+     * Wraps the given resource generators in a single data provider. {@link #generate()} is called for all generators in parallel on the given number of threads,
+     * after which {@link #save()} is called for each generator in the given order.
+     * Resources tracked by a generator in {@link #generate()} are only visible to other generators in {@link #save()}.
+     * @return a data provider wrapping the resource generators
+     */
+    public static IDataProvider createParallelDataProvider(List<Function<ResourceCache,ResourceGenerator>> generators, ExistingFileHelper existingFileHelper, DataGenerator dataGenerator, int threads){
+        return createParallelDataProvider(generators, existingFileHelper, dataGenerator, threads, null);
+    }
+
+    /**
+     * Wraps the given resource generators in a single data provider. {@link #generate()} is called for all generators in parallel on the given number of threads,
+     * after which {@link #save()} is called for each generator in the given order.
+     * Resources tracked by a generator in {@link #generate()} are only visible to other generators in {@link #save()}.
+     * When a zip file name is given, all generated resources are written to a single deterministic zip file next to the output folder, rather than as separate files.
+     * @return a data provider wrapping the resource generators
+     */
+    public static IDataProvider createParallelDataProvider(List<Function<ResourceCache,ResourceGenerator>> generators, ExistingFileHelper existingFileHelper, DataGenerator dataGenerator, int threads, String zipFileName){
+        if(threads <= 0)
+            throw new IllegalArgumentException("Number of threads must be greater than 0, not '" + threads + "'!");
+        return new IDataProvider() {
+            private String name = "Resource Generators";
+
+            @Override
+            public void run(DirectoryCache cachedOutput){
+                ResourceCache resourceCache = zipFileName == null ?
+                    ResourceCache.wrap(existingFileHelper, cachedOutput, dataGenerator.getOutputFolder()) :
+                    ResourceCache.wrapZip(existingFileHelper, cachedOutput, dataGenerator.getOutputFolder(), zipFileName);
+                // Generators are created on this thread, as their constructors depend on the active mod
+                List<ResourceGenerator> resourceGenerators = new ArrayList<>(generators.size());
+                List<IncrementalResourceCache> generatorCaches = new ArrayList<>(generators.size());
+                for(Function<ResourceCache,ResourceGenerator> generator : generators){
+                    IncrementalResourceCache generatorCache = new IncrementalResourceCache(resourceCache, dataGenerator.getOutputFolder());
+                    resourceGenerators.add(generator.apply(generatorCache));
+                    generatorCaches.add(generatorCache);
+                }
+                boolean[] replayed = new boolean[resourceGenerators.size()];
+                if(resourceGenerators.size() == 1)
+                    this.name = resourceGenerators.get(0).getName();
+
+                // Run all generators in parallel
+                AtomicInteger threadIndex = new AtomicInteger();
+                ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, resourceGenerators.size())), runnable -> {
+                    Thread thread = new Thread(runnable, "Resource Generator Worker " + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                try{
+                    // Replay generators of which the inputs did not change first, such that their kept resources are visible to all other generators
+                    runInParallel(executor, resourceGenerators, new boolean[resourceGenerators.size()], index -> replayed[index] = generatorCaches.get(index).replay(resourceGenerators.get(index)));
+                    // Hold back resources tracked whilst generating, such that whether a generator sees another generator's resources does not depend on timing
+                    for(int i = 0; i < resourceGenerators.size(); i++){
+                        if(!replayed[i])
+                            generatorCaches.get(i).deferTrackedResources();
+                    }
+                    runInParallel(executor, resourceGenerators, replayed, index -> resourceGenerators.get(index).generate());
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }finally{
+                    executor.shutdownNow();
+                }
+
+                // Make all tracked resources visible before any generator checks for them in save()
+                for(int i = 0; i < resourceGenerators.size(); i++){
+                    if(!replayed[i])
+                        generatorCaches.get(i).stopDeferringTrackedResources();
+                }
+
+                // Save the generators' resources in order
+                for(int i = 0; i < resourceGenerators.size(); i++){
+                    if(!replayed[i])
+                        resourceGenerators.get(i).save();
+                }
+                resourceCache.flush();
+                for(int i = 0; i < resourceGenerators.size(); i++){
+                    if(!replayed[i])
+                        generatorCaches.get(i).storeRecord(resourceGenerators.get(i));
+                }
+            }
+
+            @Override
+            public String getName(){
+                return this.name;
+            }
+        };
+    }
+
+    /**
+     * Runs the given task for all generators which are not skipped and waits for all of them to finish.
+     */
+    private static void runInParallel(ExecutorService executor, List<ResourceGenerator> generators, boolean[] skipped, IntConsumer task) throws InterruptedException{
+        List<Future<?>> futures = new ArrayList<>(generators.size());
+        for(int i = 0; i < generators.size(); i++){
+            int index = i;
+            futures.add(skipped[i] ? null : executor.submit(() -> task.accept(index)));
+        }
+        // Wait in order, such that the first failing generator is reported consistently
+        for(int i = 0; i < futures.size(); i++){
+            if(futures.get(i) == null)
+                continue;
+            try{
+                futures.get(i).get();
+            }catch(ExecutionException e){
+                throw new RuntimeException("Encountered an exception whilst running '" + generators.get(i).getName() + "'!", e.getCause());
+            }
+        }
+    }
+
     protected final String modid;
     protected final String modName;
     protected final ResourceCache cache;
@@ -61,15 +181,28 @@ public abstract class ResourceGenerator {
         this.modid = modid;
         this.cache = cache;
 
-        Optional<? extends ModContainer> modContainer = ModList.get().getModContainerById(modid);
+        // The mod list is not available when generators are run outside of Forge, e.g. with an in-memory resource cache
+        Optional<? extends ModContainer> modContainer = ModList.get() == null ? Optional.empty() : ModList.get().getModContainerById(modid);
         this.modName = modContainer.map(ModContainer::getModInfo).map(IModInfo::getDisplayName).orElse(modid);
     }
 
     /**
      * Generates all data. All files that will be generated should be tracked using {@link ResourceCache#trackToBeGeneratedResource(ResourceType, String, String, String, String)}.
+     * With parallel generation, this may be called on a worker thread at the same time as other generators' {@link #generate()}. Resources tracked by
+     * other generators only become visible once all generators finished generating, hence checks for resources from other generators belong in {@link #save()}.
      */
     public abstract void generate();
 
+    /**
+     * Gives a fingerprint of all inputs of this generator, for example a hash of the registered objects the generator creates files for.
+     * When the fingerprint matches the one from the previous run and none of the previously generated files were changed, {@link #generate()} and {@link #save()} are skipped and the previous files are kept.
+     * The built-in generators cannot know all of their inputs, hence they always run unless a subclass overrides this.
+     * @return the input fingerprint, or {@code null} to always run the generator
+     */
+    public String getInputFingerprint(){
+        return null;
+    }
+
     /**
      * Saves any generated resources. {@link #cache} may be used to check for existing files and to save the generated files.
      */
@@ -1,7 +1,6 @@
 package com.supermartijn642.core.generator;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import com.supermartijn642.core.registry.Registries;
 import com.supermartijn642.core.registry.RegistryUtil;
 import net.minecraft.block.Block;
@@ -11,6 +10,7 @@ import net.minecraft.tags.ITag;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.registries.ForgeRegistry;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -55,47 +55,50 @@ public abstract class TagGenerator extends ResourceGenerator {
                     throw new RuntimeException("Could not find tag reference '" + reference + "'!");
                 }
 
-                // Convert the tag into a json object
-                JsonObject object = new JsonObject();
-                // Replace
-                object.addProperty("replace", tag.replace);
-                // Entries & references
-                JsonArray entries = new JsonArray();
-                tag.entries.forEach(entries::add);
-                tag.references.stream().map(ResourceLocation::toString).map(s -> "#" + s).forEach(entries::add);
-                tag.optionalEntries.stream().map(e -> {
-                    JsonObject jsonObject = new JsonObject();
-                    jsonObject.addProperty("id", e);
-                    jsonObject.addProperty("required", false);
-                    return jsonObject;
-                }).forEach(entries::add);
-                tag.optionalReferences.stream().map(e -> {
-                    JsonObject entryObject = new JsonObject();
-                    entryObject.addProperty("id", "#" + e);
-                    entryObject.addProperty("required", false);
-                    return entryObject;
-                }).forEach(entries::add);
-                if(entries.size() > 0 || tag.remove.isEmpty())
-                    object.add("values", entries);
-                // Removed
-                JsonArray removedEntries = new JsonArray();
-                tag.remove.forEach(removedEntries::add);
-                tag.optionalRemove.stream().map(e -> {
-                    JsonObject jsonObject = new JsonObject();
-                    jsonObject.addProperty("id", e);
-                    jsonObject.addProperty("required", false);
-                    return jsonObject;
-                }).forEach(entries::add);
-                if(removedEntries.size() > 0)
-                    object.add("remove", removedEntries);
-
-                // Save the object to the cache
+                // Write the tag straight to the cache
                 ResourceLocation identifier = tag.identifier;
-                this.cache.saveJsonResource(ResourceType.DATA, object, identifier.getNamespace(), "tags/" + directoryName, identifier.getPath());
+                this.cache.saveJsonResource(ResourceType.DATA, writer -> writeTag(writer, tag), identifier.getNamespace(), "tags/" + directoryName, identifier.getPath());
             }
         }
     }
 
+    private static void writeTag(JsonWriter writer, TagBuilder<?> tag) throws IOException{
+        writer.beginObject();
+        // Replace
+        writer.name("replace").value(tag.replace);
+        // Entries & references, optional removed entries have always been written to the values
+        boolean hasValues = !tag.entries.isEmpty() || !tag.references.isEmpty() || !tag.optionalEntries.isEmpty() || !tag.optionalReferences.isEmpty();
+        if(hasValues || tag.remove.isEmpty()){
+            writer.name("values").beginArray();
+            for(String entry : tag.entries)
+                writer.value(entry);
+            for(ResourceLocation reference : tag.references)
+                writer.value("#" + reference);
+            for(String entry : tag.optionalEntries)
+                writeOptionalEntry(writer, entry);
+            for(String reference : tag.optionalReferences)
+                writeOptionalEntry(writer, "#" + reference);
+            for(String entry : tag.optionalRemove)
+                writeOptionalEntry(writer, entry);
+            writer.endArray();
+        }
+        // Removed
+        if(!tag.remove.isEmpty()){
+            writer.name("remove").beginArray();
+            for(String entry : tag.remove)
+                writer.value(entry);
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private static void writeOptionalEntry(JsonWriter writer, String id) throws IOException{
+        writer.beginObject();
+        writer.name("id").value(id);
+        writer.name("required").value(false);
+        writer.endObject();
+    }
+
     private static String getTagDirectoryName(Registries.Registry<?> registry){
         return TAG_DIRECTORIES.computeIfAbsent(registry, r -> ((ForgeRegistry<?>)r).getTagFolder());
     }
@@ -1,7 +1,9 @@
 package com.supermartijn642.core.gui;
 
 import com.supermartijn642.core.ClientUtils;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.tileentity.TileEntity;
 
 import javax.annotation.Nonnull;
 
@@ -12,6 +14,8 @@ public abstract class ObjectBaseContainer<T> extends BaseContainer {
 
     protected T object;
     private final boolean alwaysRenewObject;
+    private long lastValidation = -1;
+    private boolean lastValidationResult;
 
     public ObjectBaseContainer(BaseContainerType<?> type, PlayerEntity player, boolean alwaysRenewObject){
         super(type, player);
@@ -50,16 +54,40 @@ public abstract class ObjectBaseContainer<T> extends BaseContainer {
 
     /**
      * Validates the object. If the object is not valid the screen will be closed.
+     * The result is reused for the remainder of the tick, unless the object gets removed or {@link #invalidateObject()} is called.
      * @return true if the object is valid
      */
     protected boolean validateObjectOrClose(){
+        // Only validate once per tick
+        long tick = this.level.getGameTime();
+        if(this.lastValidation == tick && !(this.lastValidationResult && isRemoved(this.object)))
+            return this.lastValidationResult;
+        this.lastValidation = tick;
+
         if(this.alwaysRenewObject || !this.validateObject(this.object)){
             this.object = this.getObject(this.object);
             if(!this.validateObject(this.object)){
                 ClientUtils.closeScreen();
-                return false;
+                return this.lastValidationResult = false;
             }
         }
-        return true;
+        return this.lastValidationResult = true;
+    }
+
+    /**
+     * Discards the cached validation result, such that the object is validated again on the next call to {@link #validateObjectOrClose()}.
+     */
+    protected void invalidateObject(){
+        this.lastValidation = -1;
+    }
+
+    @Override
+    public void removed(PlayerEntity player){
+        this.invalidateObject();
+        super.removed(player);
+    }
+
+    private static boolean isRemoved(Object object){
+        return (object instanceof TileEntity && ((TileEntity)object).isRemoved()) || (object instanceof Entity && ((Entity)object).removed);
     }
 }
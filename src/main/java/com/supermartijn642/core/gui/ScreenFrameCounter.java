@@ -0,0 +1,25 @@
+package com.supermartijn642.core.gui;
+
+/**
+ * Created 07/08/2022 by SuperMartijn642
+ * <p>
+ * Counts the client's frames and ticks, such that object widgets only need to validate their object once per frame.
+ */
+public final class ScreenFrameCounter {
+
+    private static long frame = 0;
+
+    /**
+     * @return the current frame
+     */
+    public static long getFrame(){
+        return frame;
+    }
+
+    /**
+     * Starts a new frame. Called before every render and tick of the game renderer, regardless of which screen is open.
+     */
+    public static void nextFrame(){
+        frame++;
+    }
+}
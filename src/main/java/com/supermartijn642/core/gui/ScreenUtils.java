@@ -16,12 +16,17 @@ import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.IReorderingProcessor;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.vector.Matrix4f;
+import net.minecraft.util.math.vector.Vector4f;
 import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.LanguageMap;
 import net.minecraft.util.text.StringTextComponent;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Created 1/20/2021 by SuperMartijn642
@@ -33,12 +38,128 @@ public class ScreenUtils {
 
     public static final int DEFAULT_TEXT_COLOR = 4210752, ACTIVE_TEXT_COLOR = 14737632, INACTIVE_TEXT_COLOR = 7368816;
 
+    private static final Batch BATCH = new Batch();
+
+    private static final int TEXT_CACHE_SIZE = 512;
+    /**
+     * Layouts of text components and widths of strings, keyed by value and font and evicting the least recently used entries
+     */
+    private static final Map<TextKey,PreparedText> COMPONENT_CACHE = createTextCache();
+    private static final Map<TextKey,Integer> STRING_WIDTH_CACHE = createTextCache();
+    private static final TextKey TEXT_LOOKUP_KEY = new TextKey();
+    private static LanguageMap textCacheLanguage;
+    private static final List<PreparedText> TOOLTIP_LINES = new ArrayList<>();
+
+    private static <T> Map<TextKey,T> createTextCache(){
+        return new LinkedHashMap<TextKey,T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TextKey,T> eldest){
+                return this.size() > TEXT_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Clears all cached text layouts. The cache is cleared automatically when the language changes, but not when fonts are changed by a resource pack.
+     */
+    public static void clearTextCache(){
+        COMPONENT_CACHE.clear();
+        STRING_WIDTH_CACHE.clear();
+    }
+
+    private static void checkTextCacheLanguage(){
+        // Translated text changes with the language
+        LanguageMap language = LanguageMap.getInstance();
+        if(language != textCacheLanguage){
+            clearTextCache();
+            textCacheLanguage = language;
+        }
+    }
+
+    /**
+     * Gives the layout of the given text from the cache, laying out the text if it is not cached.
+     * Components are cached by value, a component which is modified after being drawn is simply laid out again.
+     */
+    private static PreparedText getTextLayout(FontRenderer fontRenderer, ITextComponent text){
+        checkTextCacheLanguage();
+        PreparedText layout = COMPONENT_CACHE.get(TEXT_LOOKUP_KEY.set(fontRenderer, text));
+        TEXT_LOOKUP_KEY.set(null, null);
+        if(layout == null){
+            layout = prepareText(fontRenderer, text);
+            COMPONENT_CACHE.put(new TextKey().set(fontRenderer, text), layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Measures the given text. Measurements are cached.
+     * @return the width of the given text
+     */
+    public static int getTextWidth(FontRenderer fontRenderer, ITextComponent text){
+        return getTextLayout(fontRenderer, text).width;
+    }
+
+    public static int getTextWidth(ITextComponent text){
+        return getTextWidth(ClientUtils.getFontRenderer(), text);
+    }
+
+    /**
+     * Measures the given text. Measurements are cached.
+     * @return the width of the given text
+     */
+    public static int getTextWidth(FontRenderer fontRenderer, String text){
+        checkTextCacheLanguage();
+        Integer width = STRING_WIDTH_CACHE.get(TEXT_LOOKUP_KEY.set(fontRenderer, text));
+        TEXT_LOOKUP_KEY.set(null, null);
+        if(width == null){
+            width = fontRenderer.width(text);
+            STRING_WIDTH_CACHE.put(new TextKey().set(fontRenderer, text), width);
+        }
+        return width;
+    }
+
+    public static int getTextWidth(String text){
+        return getTextWidth(ClientUtils.getFontRenderer(), text);
+    }
+
+    /**
+     * Lays out and measures the given text once, such that it can be drawn repeatedly without doing so again or looking it up in the cache.
+     * The prepared text is a snapshot, changes to the given component or the language are not reflected in it.
+     * @return the prepared text
+     */
+    public static PreparedText prepareText(FontRenderer fontRenderer, ITextComponent text){
+        if(text == null)
+            throw new IllegalArgumentException("Text must not be null!");
+        IReorderingProcessor processor = text.getVisualOrderText();
+        return new PreparedText(fontRenderer, processor, fontRenderer.width(processor));
+    }
+
+    public static PreparedText prepareText(ITextComponent text){
+        return prepareText(ClientUtils.getFontRenderer(), text);
+    }
+
+    public static void drawString(MatrixStack matrixStack, PreparedText text, float x, float y, int color){
+        text.fontRenderer.draw(matrixStack, text.text, x, y, color);
+    }
+
+    public static void drawStringWithShadow(MatrixStack matrixStack, PreparedText text, float x, float y, int color){
+        text.fontRenderer.drawShadow(matrixStack, text.text, x, y, color);
+    }
+
+    public static void drawCenteredString(MatrixStack matrixStack, PreparedText text, float x, float y, int color){
+        text.fontRenderer.draw(matrixStack, text.text, x - text.width / 2f, y, color);
+    }
+
+    public static void drawCenteredStringWithShadow(MatrixStack matrixStack, PreparedText text, float x, float y, int color){
+        text.fontRenderer.drawShadow(matrixStack, text.text, x - text.width / 2f, y, color);
+    }
+
     public static void drawString(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y, int color){
-        fontRenderer.draw(matrixStack, text, x, y, color);
+        fontRenderer.draw(matrixStack, getTextLayout(fontRenderer, text).text, x, y, color);
     }
 
     public static void drawString(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y){
-        fontRenderer.draw(matrixStack, text, x, y, DEFAULT_TEXT_COLOR);
+        drawString(matrixStack, fontRenderer, text, x, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawString(MatrixStack matrixStack, ITextComponent text, float x, float y, int color){
@@ -50,11 +171,11 @@ public class ScreenUtils {
     }
 
     public static void drawStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y, int color){
-        fontRenderer.drawShadow(matrixStack, text, x, y, color);
+        fontRenderer.drawShadow(matrixStack, getTextLayout(fontRenderer, text).text, x, y, color);
     }
 
     public static void drawStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y){
-        fontRenderer.drawShadow(matrixStack, text, x, y, DEFAULT_TEXT_COLOR);
+        drawStringWithShadow(matrixStack, fontRenderer, text, x, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawStringWithShadow(MatrixStack matrixStack, ITextComponent text, float x, float y, int color){
@@ -66,11 +187,11 @@ public class ScreenUtils {
     }
 
     public static void drawCenteredString(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y, int color){
-        fontRenderer.draw(matrixStack, text, x - fontRenderer.width(text) / 2f, y, color);
+        drawCenteredString(matrixStack, getTextLayout(fontRenderer, text), x, y, color);
     }
 
     public static void drawCenteredString(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y){
-        fontRenderer.draw(matrixStack, text, x - fontRenderer.width(text) / 2f, y, DEFAULT_TEXT_COLOR);
+        drawCenteredString(matrixStack, fontRenderer, text, x, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawCenteredString(MatrixStack matrixStack, ITextComponent text, float x, float y, int color){
@@ -82,11 +203,11 @@ public class ScreenUtils {
     }
 
     public static void drawCenteredStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y, int color){
-        fontRenderer.drawShadow(matrixStack, text, x - fontRenderer.width(text) / 2f, y, color);
+        drawCenteredStringWithShadow(matrixStack, getTextLayout(fontRenderer, text), x, y, color);
     }
 
     public static void drawCenteredStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, ITextComponent text, float x, float y){
-        fontRenderer.drawShadow(matrixStack, text, x - fontRenderer.width(text) / 2f, y, DEFAULT_TEXT_COLOR);
+        drawCenteredStringWithShadow(matrixStack, fontRenderer, text, x, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawCenteredStringWithShadow(MatrixStack matrixStack, ITextComponent text, float x, float y, int color){
@@ -114,11 +235,11 @@ public class ScreenUtils {
     }
 
     public static void drawStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, String text, float x, float y, int color){
-        fontRenderer.drawShadow(matrixStack, text, x - fontRenderer.width(text) / 2f, y, color);
+        fontRenderer.drawShadow(matrixStack, text, x - getTextWidth(fontRenderer, text) / 2f, y, color);
     }
 
     public static void drawStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, String text, float x, float y){
-        fontRenderer.drawShadow(matrixStack, text, x - fontRenderer.width(text) / 2f, y, DEFAULT_TEXT_COLOR);
+        fontRenderer.drawShadow(matrixStack, text, x - getTextWidth(fontRenderer, text) / 2f, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawStringWithShadow(MatrixStack matrixStack, String text, float x, float y, int color){
@@ -130,11 +251,11 @@ public class ScreenUtils {
     }
 
     public static void drawCenteredString(MatrixStack matrixStack, FontRenderer fontRenderer, String text, float x, float y, int color){
-        fontRenderer.draw(matrixStack, text, x - fontRenderer.width(text) / 2f, y, color);
+        fontRenderer.draw(matrixStack, text, x - getTextWidth(fontRenderer, text) / 2f, y, color);
     }
 
     public static void drawCenteredString(MatrixStack matrixStack, FontRenderer fontRenderer, String text, float x, float y){
-        fontRenderer.draw(matrixStack, text, x - fontRenderer.width(text) / 2f, y, DEFAULT_TEXT_COLOR);
+        fontRenderer.draw(matrixStack, text, x - getTextWidth(fontRenderer, text) / 2f, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawCenteredString(MatrixStack matrixStack, String text, float x, float y, int color){
@@ -146,11 +267,11 @@ public class ScreenUtils {
     }
 
     public static void drawCenteredStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, String text, float x, float y, int color){
-        fontRenderer.drawShadow(matrixStack, text, x - fontRenderer.width(text) / 2f, y, color);
+        fontRenderer.drawShadow(matrixStack, text, x - getTextWidth(fontRenderer, text) / 2f, y, color);
     }
 
     public static void drawCenteredStringWithShadow(MatrixStack matrixStack, FontRenderer fontRenderer, String text, float x, float y){
-        fontRenderer.drawShadow(matrixStack, text, x - fontRenderer.width(text) / 2f, y, DEFAULT_TEXT_COLOR);
+        fontRenderer.drawShadow(matrixStack, text, x - getTextWidth(fontRenderer, text) / 2f, y, DEFAULT_TEXT_COLOR);
     }
 
     public static void drawCenteredStringWithShadow(MatrixStack matrixStack, String text, float x, float y, int color){
@@ -242,8 +363,147 @@ public class ScreenUtils {
         Minecraft.getInstance().textureManager.bind(location);
     }
 
+    /**
+     * Starts collecting textured quads and text, such that they can be drawn with a single draw call per texture.
+     * Nothing is drawn until {@link Batch#end()} is called. The batch should be used in a try-with-resources statement, such that it is always ended.
+     * @return the batch to draw to
+     */
+    public static Batch beginBatch(){
+        if(BATCH.active)
+            throw new IllegalStateException("A batch has already been started!");
+        BATCH.active = true;
+        return BATCH;
+    }
+
+    /**
+     * Collects textured quads per texture and text in one buffer. When the batch is ended, all quads are drawn first, followed by all text.
+     */
+    public static final class Batch implements AutoCloseable {
+
+        private final Map<ResourceLocation,Quads> quads = new LinkedHashMap<>();
+        /**
+         * Text gets its own buffers, such that ending the batch does not flush anything else drawn to the main buffer source
+         */
+        private final IRenderTypeBuffer.Impl textBuffers = IRenderTypeBuffer.immediate(new BufferBuilder(256));
+        private final Vector4f vertex = new Vector4f();
+        private boolean active;
+        private boolean hasText;
+
+        private Batch(){
+        }
+
+        public void drawTexture(ResourceLocation texture, MatrixStack poseStack, float x, float y, float width, float height){
+            this.drawTexture(texture, poseStack, x, y, width, height, 0, 0, 1, 1);
+        }
+
+        public void drawTexture(ResourceLocation texture, MatrixStack poseStack, float x, float y, float width, float height, float tx, float ty, float twidth, float theight){
+            this.checkActive();
+            Quads quads = this.quads.computeIfAbsent(texture, t -> new Quads());
+            Matrix4f matrix = poseStack.last().pose();
+            this.addVertex(quads, matrix, x, y + height, tx, ty + theight);
+            this.addVertex(quads, matrix, x + width, y + height, tx + twidth, ty + theight);
+            this.addVertex(quads, matrix, x + width, y, tx + twidth, ty);
+            this.addVertex(quads, matrix, x, y, tx, ty);
+        }
+
+        public void drawString(MatrixStack poseStack, FontRenderer fontRenderer, ITextComponent text, float x, float y, int color, boolean shadow){
+            this.checkActive();
+            fontRenderer.drawInBatch(getTextLayout(fontRenderer, text).text, x, y, color, shadow, poseStack.last().pose(), this.textBuffers, false, 0, 15728880);
+            this.hasText = true;
+        }
+
+        public void drawString(MatrixStack poseStack, FontRenderer fontRenderer, String text, float x, float y, int color, boolean shadow){
+            this.checkActive();
+            fontRenderer.drawInBatch(text, x, y, color, shadow, poseStack.last().pose(), this.textBuffers, false, 0, 15728880);
+            this.hasText = true;
+        }
+
+        public void drawString(MatrixStack poseStack, ITextComponent text, float x, float y, int color){
+            this.drawString(poseStack, ClientUtils.getFontRenderer(), text, x, y, color, false);
+        }
+
+        public void drawString(MatrixStack poseStack, String text, float x, float y, int color){
+            this.drawString(poseStack, ClientUtils.getFontRenderer(), text, x, y, color, false);
+        }
+
+        /**
+         * Draws everything which has been collected and ends the batch.
+         */
+        public void end(){
+            this.checkActive();
+            this.active = false;
+
+            try{
+                GlStateManager._color4f(1, 1, 1, 1);
+                Tessellator tessellator = Tessellator.getInstance();
+                BufferBuilder buffer = tessellator.getBuilder();
+                for(Map.Entry<ResourceLocation,Quads> entry : this.quads.entrySet()){
+                    Quads quads = entry.getValue();
+                    if(quads.size == 0)
+                        continue;
+
+                    bindTexture(entry.getKey());
+                    buffer.begin(7, DefaultVertexFormats.POSITION_TEX);
+                    float[] data = quads.data;
+                    for(int i = 0; i < quads.size; i += 5)
+                        buffer.vertex(data[i], data[i + 1], data[i + 2]).uv(data[i + 3], data[i + 4]).endVertex();
+                    tessellator.end();
+                }
+
+                if(this.hasText)
+                    this.textBuffers.endBatch();
+            }finally{
+                this.quads.values().forEach(quads -> quads.size = 0);
+                this.hasText = false;
+            }
+        }
+
+        /**
+         * Ends the batch if it has not been ended yet.
+         */
+        @Override
+        public void close(){
+            if(this.active)
+                this.end();
+        }
+
+        private void addVertex(Quads quads, Matrix4f matrix, float x, float y, float u, float v){
+            this.vertex.set(x, y, 0, 1);
+            this.vertex.transform(matrix);
+            quads.add(this.vertex.x(), this.vertex.y(), this.vertex.z(), u, v);
+        }
+
+        private void checkActive(){
+            if(!this.active)
+                throw new IllegalStateException("Batch has not been started!");
+        }
+    }
+
+    private static final class Quads {
+
+        private float[] data = new float[5 * 4 * 16];
+        private int size;
+
+        private void add(float x, float y, float z, float u, float v){
+            if(this.size + 5 > this.data.length)
+                this.data = Arrays.copyOf(this.data, this.data.length * 2);
+            this.data[this.size++] = x;
+            this.data[this.size++] = y;
+            this.data[this.size++] = z;
+            this.data[this.size++] = u;
+            this.data[this.size++] = v;
+        }
+    }
+
     public static void drawTooltip(MatrixStack poseStack, FontRenderer fontRenderer, List<ITextComponent> text, int x, int y){
-        drawTooltipInternal(poseStack, fontRenderer, text.stream().map(ITextComponent::getVisualOrderText).collect(Collectors.toList()), x, y);
+        // Tooltips are only drawn on the render thread, hence the list of lines can be reused
+        try{
+            for(ITextComponent component : text)
+                TOOLTIP_LINES.add(component == null ? null : getTextLayout(fontRenderer, component));
+            drawTooltipInternal(poseStack, fontRenderer, TOOLTIP_LINES, x, y);
+        }finally{
+            TOOLTIP_LINES.clear();
+        }
     }
 
     public static void drawTooltip(MatrixStack poseStack, FontRenderer fontRenderer, ITextComponent text, int x, int y){
@@ -269,7 +529,7 @@ public class ScreenUtils {
     /**
      * Copied from {@link Screen#renderToolTip(MatrixStack, List, int, int, FontRenderer)}.
      */
-    private static void drawTooltipInternal(MatrixStack poseStack, FontRenderer fontRenderer, List<? extends IReorderingProcessor> components, int x, int y){
+    private static void drawTooltipInternal(MatrixStack poseStack, FontRenderer fontRenderer, List<PreparedText> components, int x, int y){
         if(components.isEmpty())
             return;
 
@@ -279,8 +539,8 @@ public class ScreenUtils {
         int tooltipWidth = 0;
         int tooltipHeight = components.size() == 1 ? -2 : 0;
 
-        for(IReorderingProcessor component : components){
-            int componentWidth = fontRenderer.width(component);
+        for(PreparedText component : components){
+            int componentWidth = component == null ? 0 : component.width;
             if(componentWidth > tooltipWidth)
                 tooltipWidth = componentWidth;
 
@@ -330,13 +590,67 @@ public class ScreenUtils {
         poseStack.translate(0.0D, 0.0D, 400.0D);
 
         for(int index = 0; index < components.size(); ++index){
-            IReorderingProcessor component = components.get(index);
+            PreparedText component = components.get(index);
             if(component != null)
-                fontRenderer.drawInBatch(component, tooltipX, tooltipY, -1, true, matrix4f, bufferSource, false, 0, 15728880);
+                fontRenderer.drawInBatch(component.text, tooltipX, tooltipY, -1, true, matrix4f, bufferSource, false, 0, 15728880);
             tooltipY += index == 0 ? 12 : 10;
         }
 
         bufferSource.endBatch();
         poseStack.popPose();
     }
+
+    /**
+     * Key for the text cache, compares fonts by identity and text by value.
+     */
+    private static final class TextKey {
+
+        private FontRenderer fontRenderer;
+        private Object text;
+        private int hash;
+
+        private TextKey set(FontRenderer fontRenderer, Object text){
+            this.fontRenderer = fontRenderer;
+            this.text = text;
+            this.hash = text == null ? 0 : 31 * System.identityHashCode(fontRenderer) + text.hashCode();
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(this == o) return true;
+            if(!(o instanceof TextKey)) return false;
+            TextKey key = (TextKey)o;
+            return this.fontRenderer == key.fontRenderer && this.text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode(){
+            return this.hash;
+        }
+    }
+
+    /**
+     * Text which has been laid out and measured by {@link #prepareText(FontRenderer, ITextComponent)}.
+     */
+    public static final class PreparedText {
+
+        private final FontRenderer fontRenderer;
+        private final IReorderingProcessor text;
+        private final int width;
+
+        private PreparedText(FontRenderer fontRenderer, IReorderingProcessor text, int width){
+            this.fontRenderer = fontRenderer;
+            this.text = text;
+            this.width = width;
+        }
+
+        public IReorderingProcessor getText(){
+            return this.text;
+        }
+
+        public int getWidth(){
+            return this.width;
+        }
+    }
 }
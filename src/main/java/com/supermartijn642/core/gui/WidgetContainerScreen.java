@@ -5,8 +5,11 @@ import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.datafixers.util.Pair;
 import com.supermartijn642.core.ClientUtils;
 import com.supermartijn642.core.TextComponents;
+import com.supermartijn642.core.gui.widget.AnimatedValue;
 import com.supermartijn642.core.gui.widget.ContainerWidget;
+import com.supermartijn642.core.gui.widget.RetainedWidgetRenderer;
 import com.supermartijn642.core.gui.widget.Widget;
+import net.minecraft.client.gui.chat.NarratorChatListener;
 import net.minecraft.client.gui.screen.inventory.ContainerScreen;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.util.InputMappings;
@@ -78,11 +81,13 @@ public class WidgetContainerScreen<T extends Widget, X extends BaseContainer> ex
 
     @Override
     public void tick(){
+        AnimatedValue.tick();
         this.widget.update();
     }
 
     @Override
     public void render(MatrixStack poseStack, int mouseX, int mouseY, float partialTicks){
+        AnimatedValue.updateAnimations(partialTicks);
         this.renderBackground(poseStack);
 
         int offsetX = (this.width - this.widget.width()) / 2, offsetY = (this.height - this.widget.height()) / 2;
@@ -95,19 +100,19 @@ public class WidgetContainerScreen<T extends Widget, X extends BaseContainer> ex
         this.widget.setFocused(offsetMouseX >= 0 && offsetMouseX < this.widget.width() && offsetMouseY >= 0 && offsetMouseY < this.widget.height());
 
         // Render the widget background
-        this.widget.renderBackground(poseStack, offsetMouseX, offsetMouseY);
+        RetainedWidgetRenderer.renderBackground(this.widget, poseStack, offsetMouseX, offsetMouseY);
 
         if(this.drawSlots){
-            for(Slot slot : this.container.slots){
-                ScreenUtils.bindTexture(SLOT_TEXTURE);
-                ScreenUtils.drawTexture(poseStack, slot.x - 1, slot.y - 1, 18, 18);
+            try(ScreenUtils.Batch batch = ScreenUtils.beginBatch()){
+                for(Slot slot : this.container.slots)
+                    batch.drawTexture(SLOT_TEXTURE, poseStack, slot.x - 1, slot.y - 1, 18, 18);
             }
         }
 
         MinecraftForge.EVENT_BUS.post(new GuiContainerEvent.DrawBackground(this, poseStack, mouseX, mouseY));
 
         // Render the widget
-        this.widget.render(poseStack, offsetMouseX, offsetMouseY);
+        RetainedWidgetRenderer.render(this.widget, poseStack, offsetMouseX, offsetMouseY);
 
         this.hoveredSlot = null;
         for(Slot slot : this.container.slots){
@@ -288,6 +293,8 @@ public class WidgetContainerScreen<T extends Widget, X extends BaseContainer> ex
 
     @Override
     public String getNarrationMessage(){
+        if(!NarratorChatListener.INSTANCE.isActive())
+            return "";
         ITextComponent message = this.widget.getNarrationMessage();
         return message == null ? "" : TextComponents.fromTextComponent(message).format();
     }
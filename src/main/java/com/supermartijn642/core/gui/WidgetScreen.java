@@ -3,7 +3,10 @@ package com.supermartijn642.core.gui;
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.supermartijn642.core.ClientUtils;
 import com.supermartijn642.core.TextComponents;
+import com.supermartijn642.core.gui.widget.AnimatedValue;
+import com.supermartijn642.core.gui.widget.RetainedWidgetRenderer;
 import com.supermartijn642.core.gui.widget.Widget;
+import net.minecraft.client.gui.chat.NarratorChatListener;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.util.InputMappings;
 import net.minecraft.util.text.ITextComponent;
@@ -51,11 +54,13 @@ public class WidgetScreen<T extends Widget> extends Screen {
 
     @Override
     public void tick(){
+        AnimatedValue.tick();
         this.widget.update();
     }
 
     @Override
     public void render(MatrixStack poseStack, int mouseX, int mouseY, float partialTicks){
+        AnimatedValue.updateAnimations(partialTicks);
         this.renderBackground(poseStack);
 
         int offsetX = (this.width - this.widget.width()) / 2, offsetY = (this.height - this.widget.height()) / 2;
@@ -68,9 +73,9 @@ public class WidgetScreen<T extends Widget> extends Screen {
         this.widget.setFocused(mouseX >= 0 && mouseX < this.widget.width() && mouseY >= 0 && mouseY < this.widget.height());
 
         // Render the widget background
-        this.widget.renderBackground(poseStack, mouseX, mouseY);
+        RetainedWidgetRenderer.renderBackground(this.widget, poseStack, mouseX, mouseY);
         // Render the widget
-        this.widget.render(poseStack, mouseX, mouseY);
+        RetainedWidgetRenderer.render(this.widget, poseStack, mouseX, mouseY);
         // Render the widget's foreground
         this.widget.renderForeground(poseStack, mouseX, mouseY);
         // Render the widget's overlay
@@ -136,6 +141,8 @@ public class WidgetScreen<T extends Widget> extends Screen {
 
     @Override
     public String getNarrationMessage(){
+        if(!NarratorChatListener.INSTANCE.isActive())
+            return "";
         ITextComponent message = this.widget.getNarrationMessage();
         return message == null ? "" : TextComponents.fromTextComponent(message).format();
     }
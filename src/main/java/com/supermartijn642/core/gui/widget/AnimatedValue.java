@@ -0,0 +1,149 @@
+package com.supermartijn642.core.gui.widget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created 10/08/2022 by SuperMartijn642
+ * <p>
+ * A value which smoothly moves towards its target. Running animations are interpolated once per frame using partial ticks,
+ * such that widgets only need to read {@link #get()} when rendering. Use {@link BaseWidget#animate(float, float, Easing)} to create an animated value for a widget.
+ */
+public final class AnimatedValue {
+
+    private static final List<AnimatedValue> RUNNING = new ArrayList<>();
+    private static long ticks = 0;
+    /**
+     * Ticks plus partial ticks of the current frame, a double such that sub-tick precision is kept in long sessions
+     */
+    private static double time = 0;
+
+    /**
+     * Advances the animation clock by one tick. Called by {@link com.supermartijn642.core.gui.WidgetScreen} and {@link com.supermartijn642.core.gui.WidgetContainerScreen}.
+     */
+    public static void tick(){
+        ticks++;
+    }
+
+    /**
+     * Interpolates all running animations for the current frame. Called by {@link com.supermartijn642.core.gui.WidgetScreen} and {@link com.supermartijn642.core.gui.WidgetContainerScreen} before rendering.
+     */
+    public static void updateAnimations(float partialTicks){
+        time = Math.max(time, ticks + partialTicks);
+        for(int i = RUNNING.size() - 1; i >= 0; i--){
+            AnimatedValue value = RUNNING.get(i);
+            if(!value.update()){
+                // Swap with the last value to avoid shifting the list
+                RUNNING.set(i, RUNNING.get(RUNNING.size() - 1));
+                RUNNING.remove(RUNNING.size() - 1);
+                value.running = false;
+            }
+        }
+    }
+
+    private final BaseWidget owner;
+    private final float duration;
+    private final Easing easing;
+    private float start, target, value;
+    private double startTime;
+    private boolean running = false;
+
+    /**
+     * @param owner    widget which will be marked dirty when the value changes, may be {@code null}
+     * @param initial  the initial value
+     * @param duration the duration of an animation in ticks
+     * @param easing   the easing applied to animations
+     */
+    AnimatedValue(BaseWidget owner, float initial, float duration, Easing easing){
+        if(duration < 0)
+            throw new IllegalArgumentException("Duration must not be negative!");
+        if(easing == null)
+            throw new IllegalArgumentException("Easing must not be null!");
+        this.owner = owner;
+        this.duration = duration;
+        this.easing = easing;
+        this.start = this.target = this.value = initial;
+    }
+
+    /**
+     * @param initial  the initial value
+     * @param duration the duration of an animation in ticks
+     * @param easing   the easing applied to animations
+     */
+    public AnimatedValue(float initial, float duration, Easing easing){
+        this(null, initial, duration, easing);
+    }
+
+    /**
+     * @return the value for the current frame
+     */
+    public float get(){
+        return this.value;
+    }
+
+    public float getTarget(){
+        return this.target;
+    }
+
+    public boolean isRunning(){
+        return this.running;
+    }
+
+    /**
+     * Starts animating from the current value towards the given target.
+     */
+    public void setTarget(float target){
+        if(target == this.target)
+            return;
+        this.start = this.value;
+        this.target = target;
+        this.startTime = Math.max(time, ticks);
+        if(this.duration == 0){
+            this.set(target);
+            return;
+        }
+        if(!this.running){
+            this.running = true;
+            RUNNING.add(this);
+        }
+    }
+
+    /**
+     * Sets the value immediately, stopping any running animation.
+     */
+    public void set(float value){
+        this.start = this.target = this.value = value;
+        // The value will be removed from the running animations on the next frame
+        this.startTime = -this.duration;
+        if(this.owner != null)
+            this.owner.markDirty();
+    }
+
+    /**
+     * @return whether the animation is still running
+     */
+    private boolean update(){
+        float progress = this.duration == 0 ? 1 : (float)Math.min(Math.max((time - this.startTime) / this.duration, 0), 1);
+        float value = progress == 1 ? this.target : this.start + (this.target - this.start) * this.easing.apply(progress);
+        if(value != this.value){
+            this.value = value;
+            if(this.owner != null)
+                this.owner.markDirty();
+        }
+        return progress < 1;
+    }
+
+    public interface Easing {
+
+        Easing LINEAR = t -> t;
+        Easing EASE_IN = t -> t * t;
+        Easing EASE_OUT = t -> t * (2 - t);
+        Easing EASE_IN_OUT = t -> t < 0.5f ? 2 * t * t : -1 + (4 - 2 * t) * t;
+
+        /**
+         * @param progress progress of the animation between 0 and 1
+         * @return the eased progress, should be 0 for 0 and 1 for 1
+         */
+        float apply(float progress);
+    }
+}
@@ -2,6 +2,7 @@ package com.supermartijn642.core.gui.widget;
 
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.supermartijn642.core.gui.ScreenUtils;
+import com.supermartijn642.core.gui.widget.layout.Layout;
 import net.minecraft.client.gui.chat.NarratorChatListener;
 import net.minecraft.util.Util;
 import net.minecraft.util.text.ITextComponent;
@@ -17,15 +18,33 @@ public abstract class BaseWidget implements Widget {
 
     protected final List<Widget> widgets = new ArrayList<>();
     protected Widget focusedWidget = null;
+    private Widget lastFocusedWidget = null;
+    private final WidgetSpatialIndex widgetIndex = new WidgetSpatialIndex();
+    /**
+     * The widget this widget was added to, which is notified when this widget's bounds change
+     */
+    private BaseWidget parent;
     protected int x, y, width, height;
+    private int preferredWidth, preferredHeight;
+    private boolean hasPreferredSize = false;
+    private Layout layout;
     private boolean focused;
     protected long nextNarration = Long.MAX_VALUE;
+    private boolean retained = false;
+    private long lastChange = RetainedWidgetRenderer.nextChange();
+    private final List<ITextComponent> tooltips = new ArrayList<>(0);
+    private final Consumer<ITextComponent> tooltipConsumer = this.tooltips::add;
+    private long tooltipsVersion = -1, narrationVersion = -1;
+    private ITextComponent narrationMessage;
+    RetainedWidgetRenderer.Cache renderCache;
 
     public BaseWidget(int x, int y, int width, int height){
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
+        this.preferredWidth = width;
+        this.preferredHeight = height;
     }
 
     @Override
@@ -52,12 +71,77 @@ public abstract class BaseWidget implements Widget {
     public void initialize(){
         this.addWidgets();
         this.widgets.forEach(Widget::initialize);
+        this.updateLayout();
+    }
+
+    /**
+     * Sets the position and size of this widget.
+     */
+    public void setBounds(int x, int y, int width, int height){
+        if(this.x != x || this.y != y || this.width != width || this.height != height){
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            if(this.parent != null)
+                this.parent.invalidateWidgetBounds();
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Sets the size this widget prefers when it is positioned by a {@link Layout}.
+     */
+    public void setPreferredSize(int width, int height){
+        this.preferredWidth = width;
+        this.preferredHeight = height;
+        this.hasPreferredSize = true;
+    }
+
+    /**
+     * @return the width set through {@link #setPreferredSize(int, int)}, otherwise the width measured by this widget's layout, otherwise the width this widget was created with
+     */
+    public int getPreferredWidth(){
+        return !this.hasPreferredSize && this.layout != null ? this.layout.getMeasuredWidth(this.widgets) : this.preferredWidth;
+    }
+
+    /**
+     * @return the height set through {@link #setPreferredSize(int, int)}, otherwise the height measured by this widget's layout, otherwise the height this widget was created with
+     */
+    public int getPreferredHeight(){
+        return !this.hasPreferredSize && this.layout != null ? this.layout.getMeasuredHeight(this.widgets) : this.preferredHeight;
+    }
+
+    /**
+     * Sets the layout which positions this widget's internal widgets within this widget's bounds.
+     * Internal widgets are only arranged again when their preferred size or this widget's bounds change.
+     * @param layout the layout to use, or {@code null} to position internal widgets manually
+     */
+    public void setLayout(Layout layout){
+        this.layout = layout;
+        if(layout != null)
+            layout.invalidate();
+        this.markDirty();
+    }
+
+    public Layout getLayout(){
+        return this.layout;
+    }
+
+    /**
+     * Arranges the internal widgets using this widget's layout, if anything changed since they were last arranged.
+     */
+    protected void updateLayout(){
+        if(this.layout != null && this.layout.update(this.widgets, this.left(), this.top(), this.width(), this.height()))
+            this.invalidateWidgetBounds();
     }
 
     @Override
     public void setFocused(boolean focused){
-        if(this.focused != focused)
+        if(this.focused != focused){
             this.nextNarration = focused ? Util.getMillis() + 750 : Long.MAX_VALUE;
+            this.markDirty();
+        }
         this.focused = focused;
     }
 
@@ -65,6 +149,82 @@ public abstract class BaseWidget implements Widget {
         return this.focused;
     }
 
+    /**
+     * Sets whether this widget is rendered in retained mode. In retained mode, the background and main features of this widget and its children are
+     * rendered to an offscreen buffer, which is only redrawn after {@link #markDirty()} has been called for this widget or one of its children.
+     * Note that mouse positions passed to cached widgets are not updated until the cache is redrawn, changes in focus do mark a widget as dirty.
+     * Anything drawn outside of the widget's bounds is cut off.
+     */
+    public void setRetained(boolean retained){
+        this.retained = retained;
+        if(!retained && this.renderCache != null){
+            this.renderCache.discard();
+            this.renderCache = null;
+        }
+    }
+
+    public boolean isRetained(){
+        return this.retained;
+    }
+
+    /**
+     * Marks this widget as changed, such that retained widgets containing this widget will redraw it.
+     */
+    public void markDirty(){
+        this.lastChange = RetainedWidgetRenderer.nextChange();
+    }
+
+    /**
+     * Whether the tooltips and narration message of this widget only change when {@link #markDirty()} is called.
+     * If so, they are only gathered again after the widget has been marked dirty.
+     * Widgets should only opt in when all of their state which affects tooltips and narration marks them as dirty, including the state of subclasses.
+     */
+    protected boolean cacheTooltipsAndNarration(){
+        return false;
+    }
+
+    /**
+     * Whether this widget may be drawn to the cache of a retained widget. Widgets which change every frame, e.g. because they are animated, should return {@code false}.
+     * Such widgets will be drawn on top of the cached image every frame instead.
+     */
+    protected boolean canBeCached(){
+        return true;
+    }
+
+    /**
+     * @return the most recent change to this widget or any of its children which can be cached
+     */
+    long getLatestChange(){
+        long latestChange = this.lastChange;
+        for(Widget widget : this.widgets){
+            if(widget instanceof BaseWidget && ((BaseWidget)widget).canBeCached())
+                latestChange = Math.max(latestChange, ((BaseWidget)widget).getLatestChange());
+        }
+        return latestChange;
+    }
+
+    /**
+     * Updates which widget is focused for this widget and its children, without rendering anything.
+     */
+    void updateFocusTree(int mouseX, int mouseY){
+        this.updateLayout();
+        this.updateFocusedWidget(mouseX, mouseY);
+        for(Widget widget : this.widgets){
+            if(widget instanceof BaseWidget)
+                ((BaseWidget)widget).updateFocusTree(mouseX, mouseY);
+        }
+    }
+
+    /**
+     * Creates a value which is animated towards its target over the given duration. The value is interpolated every frame and marks this widget as dirty when it changes.
+     * @param initial  the initial value
+     * @param duration the duration of an animation in ticks
+     * @param easing   the easing applied to animations
+     */
+    protected AnimatedValue animate(float initial, float duration, AnimatedValue.Easing easing){
+        return new AnimatedValue(this, initial, duration, easing);
+    }
+
     /**
      * Adds widgets to the screen via {@link #addWidget(Widget)}.
      */
@@ -84,6 +244,10 @@ public abstract class BaseWidget implements Widget {
         if(widget instanceof ContainerWidget<?>)
             throw new IllegalArgumentException("Cannot add a container widget to a regular widget!");
         this.widgets.add(widget);
+        if(widget instanceof BaseWidget)
+            ((BaseWidget)widget).parent = this;
+        this.widgetIndex.invalidate();
+        this.markDirty();
         return widget;
     }
 
@@ -93,7 +257,38 @@ public abstract class BaseWidget implements Widget {
      * @return true if this widget contained the given widget
      */
     protected boolean removeWidget(Widget widget){
-        return this.widgets.remove(widget);
+        if(this.widgets.remove(widget)){
+            if(widget == this.focusedWidget)
+                this.focusedWidget = null;
+            if(widget == this.lastFocusedWidget){
+                widget.setFocused(false);
+                this.lastFocusedWidget = null;
+            }
+            if(widget instanceof BaseWidget && ((BaseWidget)widget).parent == this)
+                ((BaseWidget)widget).parent = null;
+            this.widgetIndex.invalidate();
+            this.markDirty();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first internal widget of which the bounds contain the given position.
+     * For widgets with many internal widgets, this uses an index of the internal widgets' bounds.
+     * @return the widget at the given position or {@code null}
+     */
+    protected Widget getWidgetAt(int x, int y){
+        return this.widgetIndex.getWidgetAt(this.widgets, x, y);
+    }
+
+    /**
+     * Marks the index of internal widgets as outdated. This is done automatically when internal widgets are added or removed, when their bounds change through
+     * {@link #setBounds(int, int, int, int)}, and when they are arranged by this widget's layout. It should be called when an internal widget moves in any other way,
+     * such that it can be found at its new position.
+     */
+    public void invalidateWidgetBounds(){
+        this.widgetIndex.invalidate();
     }
 
     @Override
@@ -103,6 +298,22 @@ public abstract class BaseWidget implements Widget {
 
     @Override
     public void renderBackground(MatrixStack poseStack, int mouseX, int mouseY){
+        this.updateLayout();
+        this.updateFocusedWidget(mouseX, mouseY);
+
+        // Render internal widgets' background
+        for(Widget widget : this.widgets){
+            if(widget != this.focusedWidget)
+                RetainedWidgetRenderer.renderBackground(widget, poseStack, mouseX, mouseY);
+        }
+        if(this.focusedWidget != null)
+            RetainedWidgetRenderer.renderBackground(this.focusedWidget, poseStack, mouseX, mouseY);
+    }
+
+    /**
+     * Updates which of the internal widgets is focused and narrates this widget's narration message. Called from {@link #renderBackground(MatrixStack, int, int)}.
+     */
+    protected void updateFocusedWidget(int mouseX, int mouseY){
         // Update the focused widget
         if(!this.focused)
             this.focusedWidget = null;
@@ -110,37 +321,43 @@ public abstract class BaseWidget implements Widget {
             this.focusedWidget = null;
             this.nextNarration = Util.getMillis() + 750;
         }
-        for(Widget widget : this.widgets){
-            if(this.focusedWidget == null && mouseX >= widget.left() && mouseX < widget.left() + widget.width() && mouseY >= widget.top() && mouseY < widget.top() + widget.height()){
-                this.focusedWidget = widget;
-                widget.setFocused(true);
+        if(this.focusedWidget == null){
+            this.focusedWidget = this.getWidgetAt(mouseX, mouseY);
+            if(this.focusedWidget != null)
                 this.nextNarration = Long.MAX_VALUE;
-            }else
-                widget.setFocused(widget == this.focusedWidget);
         }
+        // Only the previously and currently focused widgets need to be updated
+        if(this.lastFocusedWidget != null && this.lastFocusedWidget != this.focusedWidget)
+            this.lastFocusedWidget.setFocused(false);
+        if(this.focusedWidget != null)
+            this.focusedWidget.setFocused(true);
+        this.lastFocusedWidget = this.focusedWidget;
 
         // Narrate this widget's narration message
         if(this.focused && this.focusedWidget == null && Util.getMillis() > this.nextNarration){
-            ITextComponent message = this.getNarrationMessage();
-            String s = message == null ? "" : message.getString();
-            if(!s.isEmpty()){
-                NarratorChatListener.INSTANCE.sayNow(s);
+            // Don't build the narration message when the narrator is off
+            if(!NarratorChatListener.INSTANCE.isActive())
                 this.nextNarration = Long.MAX_VALUE;
+            else{
+                ITextComponent message = this.getCachedNarrationMessage();
+                String s = message == null ? "" : message.getString();
+                if(!s.isEmpty()){
+                    NarratorChatListener.INSTANCE.sayNow(s);
+                    this.nextNarration = Long.MAX_VALUE;
+                }
             }
         }
-
-        // Render internal widgets' background
-        this.widgets.stream().filter(w -> w != this.focusedWidget).forEach(w -> w.renderBackground(poseStack, mouseX, mouseY));
-        if(this.focusedWidget != null)
-            this.focusedWidget.renderBackground(poseStack, mouseX, mouseY);
     }
 
     @Override
     public void render(MatrixStack poseStack, int mouseX, int mouseY){
         // Render internal widgets
-        this.widgets.stream().filter(w -> w != this.focusedWidget).forEach(w -> w.render(poseStack, mouseX, mouseY));
+        for(Widget widget : this.widgets){
+            if(widget != this.focusedWidget)
+                RetainedWidgetRenderer.render(widget, poseStack, mouseX, mouseY);
+        }
         if(this.focusedWidget != null)
-            this.focusedWidget.render(poseStack, mouseX, mouseY);
+            RetainedWidgetRenderer.render(this.focusedWidget, poseStack, mouseX, mouseY);
     }
 
     @Override
@@ -165,14 +382,26 @@ public abstract class BaseWidget implements Widget {
             if(this.focusedWidget != null)
                 this.focusedWidget.renderTooltips(poseStack, mouseX, mouseY);
             else{
-                // Find a better way to do this, preferably without instantiating an array list unless needed
-                List<ITextComponent> tooltips = new ArrayList<>(0);
-                this.getTooltips(tooltips::add);
-                ScreenUtils.drawTooltip(poseStack, tooltips, mouseX, mouseY);
+                // Only gather tooltips again if they may have changed
+                if(!this.cacheTooltipsAndNarration() || this.tooltipsVersion != this.lastChange){
+                    this.tooltips.clear();
+                    this.getTooltips(this.tooltipConsumer);
+                    this.tooltipsVersion = this.lastChange;
+                }
+                if(!this.tooltips.isEmpty())
+                    ScreenUtils.drawTooltip(poseStack, this.tooltips, mouseX, mouseY);
             }
         }
     }
 
+    private ITextComponent getCachedNarrationMessage(){
+        if(!this.cacheTooltipsAndNarration() || this.narrationVersion != this.lastChange){
+            this.narrationMessage = this.getNarrationMessage();
+            this.narrationVersion = this.lastChange;
+        }
+        return this.narrationMessage;
+    }
+
     /**
      * Gathers the tooltips to be rendered in {@link #renderTooltips(MatrixStack, int, int)}. Tooltips will only be shown when this widget is focused.
      * @param tooltips consumer for tooltips to be rendered
@@ -182,6 +411,11 @@ public abstract class BaseWidget implements Widget {
 
     @Override
     public void discard(){
+        this.widgets.forEach(Widget::discard);
+        if(this.renderCache != null){
+            this.renderCache.discard();
+            this.renderCache = null;
+        }
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.supermartijn642.core.gui.widget;
 
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.supermartijn642.core.ClientUtils;
+import com.supermartijn642.core.gui.ScreenFrameCounter;
 import net.minecraft.inventory.container.Container;
 import net.minecraft.util.text.ITextComponent;
 
@@ -14,6 +15,8 @@ public abstract class ObjectBaseContainerWidget<T, C extends Container> extends
 
     protected T object;
     private final boolean alwaysRenewObject;
+    private long lastValidation = -1;
+    private boolean lastValidationResult;
 
     public ObjectBaseContainerWidget(int x, int y, int width, int height, boolean alwaysRenewObject){
         super(x, y, width, height);
@@ -41,17 +44,24 @@ public abstract class ObjectBaseContainerWidget<T, C extends Container> extends
 
     /**
      * Validates the object. If the object is not valid the screen will be closed.
+     * The result is reused for the remainder of the frame.
      * @return true if the object is valid
      */
     protected boolean validateObjectOrClose(){
+        // Only validate once per frame
+        long frame = ScreenFrameCounter.getFrame();
+        if(this.lastValidation == frame)
+            return this.lastValidationResult;
+        this.lastValidation = frame;
+
         if(this.alwaysRenewObject || !this.validateObject(this.object)){
             this.object = this.getObject(this.object);
             if(!this.validateObject(this.object)){
                 ClientUtils.closeScreen();
-                return false;
+                return this.lastValidationResult = false;
             }
         }
-        return true;
+        return this.lastValidationResult = true;
     }
 
     @Override
@@ -90,7 +100,7 @@ public abstract class ObjectBaseContainerWidget<T, C extends Container> extends
 
     @Override
     public final int left(){
-        return this.validateObjectOrClose() ? this.width(this.object) : 0;
+        return this.validateObjectOrClose() ? this.left(this.object) : 0;
     }
 
     /**
@@ -0,0 +1,338 @@
+package com.supermartijn642.core.gui.widget;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.supermartijn642.core.ClientUtils;
+import net.minecraft.client.MainWindow;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.shader.Framebuffer;
+import net.minecraft.util.math.vector.Matrix4f;
+import net.minecraft.util.math.vector.Vector4f;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Created 05/08/2022 by SuperMartijn642
+ * <p>
+ * Renders widgets in retained mode. The background and main render passes of a {@link BaseWidget#isRetained() retained} widget are drawn into
+ * offscreen framebuffers, which are only redrawn when the widget or one of its children {@link BaseWidget#markDirty() changed}.
+ * The framebuffers only cover the widget's bounds, anything drawn outside of them is cut off.
+ * <p>
+ * Children which {@link BaseWidget#canBeCached() cannot be cached} are left out of the framebuffers. Their pose and scissor area are recorded instead,
+ * such that they are drawn on top of the cached image every frame as if they were drawn by their parent.
+ * <p>
+ * The scissor area is tracked in software, hence widgets should restrict rendering through {@link #pushScissor(int, int, int, int)} and {@link #popScissor()}.
+ */
+public final class RetainedWidgetRenderer {
+
+    private static final Deque<Target> TARGETS = new ArrayDeque<>();
+    /**
+     * Scissor areas which were replaced by {@link #pushScissor(int, int, int, int)}, may contain {@code null} for no scissor area
+     */
+    private static final List<Scissor> SCISSOR_STACK = new ArrayList<>();
+    /**
+     * The current scissor area in window pixels, or {@code null} if rendering is not restricted
+     */
+    private static Scissor scissor;
+    private static long changeCounter = 0;
+
+    static long nextChange(){
+        return ++changeCounter;
+    }
+
+    /**
+     * Renders the background of the given widget, using the widget's cached background if possible.
+     */
+    public static void renderBackground(Widget widget, MatrixStack poseStack, int mouseX, int mouseY){
+        renderPass(widget, Pass.BACKGROUND, poseStack, mouseX, mouseY);
+    }
+
+    /**
+     * Renders the main features of the given widget, using the widget's cached render if possible.
+     */
+    public static void render(Widget widget, MatrixStack poseStack, int mouseX, int mouseY){
+        renderPass(widget, Pass.MAIN, poseStack, mouseX, mouseY);
+    }
+
+    /**
+     * Restricts rendering to the intersection of the given area and the current scissor area, until {@link #popScissor()} is called.
+     * Should be used instead of {@link RenderSystem#enableScissor(int, int, int, int)} by widgets which may be drawn inside a retained widget or inside another widget which restricts rendering.
+     * @param x      left edge of the area in window pixels
+     * @param y      bottom edge of the area in window pixels, measured from the bottom of the window
+     * @param width  width of the area in window pixels
+     * @param height height of the area in window pixels
+     */
+    public static void pushScissor(int x, int y, int width, int height){
+        SCISSOR_STACK.add(scissor);
+        scissor = Scissor.intersect(scissor, new Scissor(x, y, width, height));
+        applyScissor();
+    }
+
+    /**
+     * Restores the scissor area from before the last call to {@link #pushScissor(int, int, int, int)}.
+     */
+    public static void popScissor(){
+        if(SCISSOR_STACK.isEmpty())
+            throw new IllegalStateException("Scissor area must be pushed before it can be popped!");
+        scissor = SCISSOR_STACK.remove(SCISSOR_STACK.size() - 1);
+        applyScissor();
+    }
+
+    private static void applyScissor(){
+        if(scissor == null){
+            RenderSystem.disableScissor();
+            return;
+        }
+        Target target = TARGETS.peek();
+        if(target == null)
+            RenderSystem.enableScissor(scissor.x, scissor.y, scissor.width, scissor.height);
+        else
+            RenderSystem.enableScissor(scissor.x - target.bounds.x, scissor.y - target.bounds.glY, scissor.width, scissor.height);
+    }
+
+    private static void renderPass(Widget widget, Pass pass, MatrixStack poseStack, int mouseX, int mouseY){
+        Target outerTarget = TARGETS.peek();
+        // Children which cannot be cached get drawn after the cached image
+        if(outerTarget != null && !isCacheable(widget)){
+            outerTarget.liveWidgets.add(new LiveWidget(widget, poseStack.last().pose().copy(), scissor));
+            return;
+        }
+        if(!(widget instanceof BaseWidget) || !((BaseWidget)widget).isRetained()){
+            pass.draw(widget, poseStack, mouseX, mouseY);
+            return;
+        }
+
+        BaseWidget baseWidget = (BaseWidget)widget;
+        if(pass == Pass.BACKGROUND)
+            baseWidget.updateFocusTree(mouseX, mouseY);
+        long version = baseWidget.getLatestChange();
+
+        if(baseWidget.renderCache == null)
+            baseWidget.renderCache = new Cache();
+        Cache cache = baseWidget.renderCache;
+        MainWindow window = ClientUtils.getMinecraft().getWindow();
+        Bounds bounds = Bounds.of(widget, poseStack, window);
+        int index = pass.ordinal();
+        Framebuffer buffer = cache.buffers[index];
+        if(buffer == null || !bounds.equals(cache.bounds[index]) || cache.versions[index] != version){
+            if(buffer == null){
+                buffer = new Framebuffer(bounds.width, bounds.height, true, Minecraft.ON_OSX);
+                cache.buffers[index] = buffer;
+            }else if(buffer.width != bounds.width || buffer.height != bounds.height)
+                buffer.resize(bounds.width, bounds.height, Minecraft.ON_OSX);
+
+            buffer.setClearColor(0, 0, 0, 0);
+            buffer.clear(Minecraft.ON_OSX);
+            // The outer scissor area is applied when the cached image gets drawn
+            Scissor outerScissor = scissor;
+            scissor = null;
+            RenderSystem.disableScissor();
+            Target target = new Target(buffer, bounds);
+            TARGETS.push(target);
+            bind(target, window);
+            try{
+                pass.draw(widget, poseStack, mouseX, mouseY);
+            }finally{
+                TARGETS.pop();
+                bind(outerTarget, window);
+                scissor = outerScissor;
+                applyScissor();
+            }
+            cache.bounds[index] = bounds;
+            cache.versions[index] = version;
+            cache.liveWidgets[index] = target.liveWidgets;
+        }
+
+        composite(buffer, bounds, window);
+
+        List<LiveWidget> liveWidgets = cache.liveWidgets[index];
+        if(outerTarget != null){
+            // Nested retained widgets leave live children to the outermost retained widget
+            outerTarget.liveWidgets.addAll(liveWidgets);
+        }else if(!liveWidgets.isEmpty()){
+            Scissor outerScissor = scissor;
+            for(LiveWidget liveWidget : liveWidgets){
+                scissor = Scissor.intersect(outerScissor, liveWidget.scissor);
+                applyScissor();
+                MatrixStack liveStack = new MatrixStack();
+                liveStack.last().pose().multiply(liveWidget.pose);
+                pass.draw(liveWidget.widget, liveStack, mouseX, mouseY);
+            }
+            scissor = outerScissor;
+            applyScissor();
+        }
+    }
+
+    private static boolean isCacheable(Widget widget){
+        return widget instanceof BaseWidget && ((BaseWidget)widget).canBeCached();
+    }
+
+    private static void bind(Target target, MainWindow window){
+        if(target == null){
+            ClientUtils.getMinecraft().getMainRenderTarget().bindWrite(true);
+            return;
+        }
+        // Offset the viewport such that gui coordinates still map to the same window pixels
+        target.buffer.bindWrite(false);
+        RenderSystem.viewport(-target.bounds.x, -target.bounds.glY, window.getWidth(), window.getHeight());
+    }
+
+    private static void composite(Framebuffer buffer, Bounds bounds, MainWindow window){
+        double scale = window.getGuiScale();
+        float left = (float)(bounds.x / scale), top = (float)(bounds.y / scale);
+        float right = (float)((bounds.x + bounds.width) / scale), bottom = (float)((bounds.y + bounds.height) / scale);
+
+        RenderSystem.enableBlend();
+        // The framebuffer was cleared to transparent and drawn into with alpha blending, hence its colors are already multiplied by their alpha
+        RenderSystem.blendFunc(GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+        GlStateManager._color4f(1, 1, 1, 1);
+        buffer.bindRead();
+        // Ignore the current pose, the bounds are already in screen coordinates
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder builder = tessellator.getBuilder();
+        builder.begin(7, DefaultVertexFormats.POSITION_TEX);
+        builder.vertex(left, bottom, 0).uv(0, 0).endVertex();
+        builder.vertex(right, bottom, 0).uv(1, 0).endVertex();
+        builder.vertex(right, top, 0).uv(1, 1).endVertex();
+        builder.vertex(left, top, 0).uv(0, 1).endVertex();
+        tessellator.end();
+        buffer.unbindRead();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+
+    static final class Cache {
+
+        private final Framebuffer[] buffers = new Framebuffer[Pass.values().length];
+        private final Bounds[] bounds = new Bounds[Pass.values().length];
+        private final long[] versions = new long[Pass.values().length];
+        @SuppressWarnings("unchecked")
+        private final List<LiveWidget>[] liveWidgets = new List[Pass.values().length];
+
+        private Cache(){
+            for(int i = 0; i < this.liveWidgets.length; i++)
+                this.liveWidgets[i] = Collections.emptyList();
+        }
+
+        void discard(){
+            for(int i = 0; i < this.buffers.length; i++){
+                if(this.buffers[i] != null){
+                    this.buffers[i].destroyBuffers();
+                    this.buffers[i] = null;
+                }
+                this.bounds[i] = null;
+                this.liveWidgets[i] = Collections.emptyList();
+            }
+        }
+    }
+
+    private static final class Target {
+
+        private final Framebuffer buffer;
+        private final Bounds bounds;
+        private final List<LiveWidget> liveWidgets = new ArrayList<>();
+
+        private Target(Framebuffer buffer, Bounds bounds){
+            this.buffer = buffer;
+            this.bounds = bounds;
+        }
+    }
+
+    private static final class LiveWidget {
+
+        private final Widget widget;
+        private final Matrix4f pose;
+        private final Scissor scissor;
+
+        private LiveWidget(Widget widget, Matrix4f pose, Scissor scissor){
+            this.widget = widget;
+            this.pose = pose;
+            this.scissor = scissor;
+        }
+    }
+
+    /**
+     * Area of the window covered by a widget, in window pixels measured from the top left of the window.
+     */
+    private static final class Bounds {
+
+        private final int x, y, width, height, glY;
+
+        private Bounds(int x, int y, int width, int height, int windowHeight){
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.glY = windowHeight - y - height;
+        }
+
+        private static Bounds of(Widget widget, MatrixStack poseStack, MainWindow window){
+            Vector4f topLeft = new Vector4f(widget.left(), widget.top(), 0, 1);
+            topLeft.transform(poseStack.last().pose());
+            Vector4f bottomRight = new Vector4f(widget.left() + widget.width(), widget.top() + widget.height(), 0, 1);
+            bottomRight.transform(poseStack.last().pose());
+            double scale = window.getGuiScale();
+            int left = Math.max(0, (int)Math.floor(Math.min(topLeft.x(), bottomRight.x()) * scale));
+            int top = Math.max(0, (int)Math.floor(Math.min(topLeft.y(), bottomRight.y()) * scale));
+            int right = Math.min(window.getWidth(), (int)Math.ceil(Math.max(topLeft.x(), bottomRight.x()) * scale));
+            int bottom = Math.min(window.getHeight(), (int)Math.ceil(Math.max(topLeft.y(), bottomRight.y()) * scale));
+            return new Bounds(left, top, Math.max(1, right - left), Math.max(1, bottom - top), window.getHeight());
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(this == o) return true;
+            if(!(o instanceof Bounds)) return false;
+            Bounds bounds = (Bounds)o;
+            return this.x == bounds.x && this.y == bounds.y && this.width == bounds.width && this.height == bounds.height && this.glY == bounds.glY;
+        }
+
+        @Override
+        public int hashCode(){
+            return ((this.x * 31 + this.y) * 31 + this.width) * 31 + this.height;
+        }
+    }
+
+    /**
+     * Scissor area in window pixels, measured from the bottom left.
+     */
+    private static final class Scissor {
+
+        private final int x, y, width, height;
+
+        private Scissor(int x, int y, int width, int height){
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        private static Scissor intersect(Scissor first, Scissor second){
+            if(first == null || second == null)
+                return first == null ? second : first;
+            int x = Math.max(first.x, second.x), y = Math.max(first.y, second.y);
+            int width = Math.min(first.x + first.width, second.x + second.width) - x;
+            int height = Math.min(first.y + first.height, second.y + second.height) - y;
+            return new Scissor(x, y, Math.max(0, width), Math.max(0, height));
+        }
+    }
+
+    private enum Pass {
+        BACKGROUND, MAIN;
+
+        private void draw(Widget widget, MatrixStack poseStack, int mouseX, int mouseY){
+            if(this == BACKGROUND)
+                widget.renderBackground(poseStack, mouseX, mouseY);
+            else
+                widget.render(poseStack, mouseX, mouseY);
+        }
+    }
+}
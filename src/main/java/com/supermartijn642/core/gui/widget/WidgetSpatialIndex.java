@@ -0,0 +1,127 @@
+package com.supermartijn642.core.gui.widget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created 06/08/2022 by SuperMartijn642
+ * <p>
+ * Uniform grid over the bounds of a widget's children, used to find the widget at a given position without checking every child.
+ * The grid is kept between frames and is only rebuilt after it has been {@link #invalidate() invalidated}, which happens when children are added or removed,
+ * when a child's bounds change through {@link BaseWidget#setBounds(int, int, int, int)}, and when the children are arranged by a layout.
+ */
+final class WidgetSpatialIndex {
+
+    /**
+     * Below this number of widgets, checking every widget is cheaper than maintaining the grid
+     */
+    static final int MIN_WIDGETS = 16;
+    private static final int CELL_SIZE = 32;
+    /**
+     * Limits the number of cells when children are spread out far, the cell size is increased instead
+     */
+    private static final int MAX_CELLS = 4096;
+
+    private List<Widget>[] cells;
+    private int originX, originY, cellSize, columns, rows;
+    private int indexedWidgets = -1;
+
+    /**
+     * Marks the index as outdated, it will be rebuilt on the next query.
+     */
+    void invalidate(){
+        this.indexedWidgets = -1;
+    }
+
+    /**
+     * @return the first widget in the given list of which the bounds contain the given position, or {@code null}
+     */
+    Widget getWidgetAt(List<Widget> widgets, int x, int y){
+        if(widgets.size() < MIN_WIDGETS){
+            for(Widget widget : widgets){
+                if(contains(widget, x, y))
+                    return widget;
+            }
+            return null;
+        }
+
+        // Also check the number of widgets, in case the list was modified directly
+        if(this.indexedWidgets != widgets.size())
+            this.rebuild(widgets);
+        if(this.columns == 0)
+            return null;
+
+        int cellX = Math.floorDiv(x - this.originX, this.cellSize), cellY = Math.floorDiv(y - this.originY, this.cellSize);
+        if(cellX < 0 || cellX >= this.columns || cellY < 0 || cellY >= this.rows)
+            return null;
+        // Widgets are added to cells in list order, thus the first match is the first in the list
+        List<Widget> cell = this.cells[cellY * this.columns + cellX];
+        if(cell != null){
+            for(int i = 0; i < cell.size(); i++){
+                Widget widget = cell.get(i);
+                if(contains(widget, x, y))
+                    return widget;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuild(List<Widget> widgets){
+        this.indexedWidgets = widgets.size();
+        this.columns = 0;
+        this.rows = 0;
+
+        // Determine the area covered by the widgets
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for(Widget widget : widgets){
+            if(widget.width() <= 0 || widget.height() <= 0)
+                continue;
+            minX = Math.min(minX, widget.left());
+            minY = Math.min(minY, widget.top());
+            maxX = Math.max(maxX, widget.left() + widget.width());
+            maxY = Math.max(maxY, widget.top() + widget.height());
+        }
+        if(minX > maxX)
+            return;
+
+        int cellSize = CELL_SIZE;
+        while((long)ceilDiv(maxX - minX, cellSize) * ceilDiv(maxY - minY, cellSize) > MAX_CELLS)
+            cellSize *= 2;
+        this.originX = minX;
+        this.originY = minY;
+        this.cellSize = cellSize;
+        this.columns = ceilDiv(maxX - minX, cellSize);
+        this.rows = ceilDiv(maxY - minY, cellSize);
+        // Reuse the cells from the previous build where possible
+        if(this.cells == null || this.cells.length < this.columns * this.rows)
+            this.cells = new List[this.columns * this.rows];
+        for(List<Widget> cell : this.cells){
+            if(cell != null)
+                cell.clear();
+        }
+
+        for(Widget widget : widgets){
+            if(widget.width() <= 0 || widget.height() <= 0)
+                continue;
+            int fromX = (widget.left() - minX) / cellSize, toX = (widget.left() + widget.width() - 1 - minX) / cellSize;
+            int fromY = (widget.top() - minY) / cellSize, toY = (widget.top() + widget.height() - 1 - minY) / cellSize;
+            for(int cellY = fromY; cellY <= toY; cellY++){
+                for(int cellX = fromX; cellX <= toX; cellX++){
+                    int index = cellY * this.columns + cellX;
+                    if(this.cells[index] == null)
+                        this.cells[index] = new ArrayList<>(2);
+                    this.cells[index].add(widget);
+                }
+            }
+        }
+    }
+
+    private static boolean contains(Widget widget, int x, int y){
+        return x >= widget.left() && x < widget.left() + widget.width() && y >= widget.top() && y < widget.top() + widget.height();
+    }
+
+    private static int ceilDiv(int value, int divisor){
+        return Math.max(1, (value + divisor - 1) / divisor);
+    }
+}
@@ -0,0 +1,94 @@
+package com.supermartijn642.core.gui.widget.layout;
+
+import com.supermartijn642.core.gui.widget.Widget;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created 09/08/2022 by SuperMartijn642
+ * <p>
+ * Places widgets relative to an anchor point of the available bounds, e.g. its center or its bottom right corner.
+ * Widgets without an anchor are left in place.
+ */
+public class AnchorLayout extends Layout {
+
+    private final Map<Widget,AnchoredWidget> anchors = new IdentityHashMap<>();
+
+    /**
+     * Anchors the given widget to the given anchor point. The offset moves the widget away from the anchor point, towards the center of the bounds.
+     * @return this layout
+     */
+    public AnchorLayout anchor(Widget widget, Anchor anchor, int offsetX, int offsetY){
+        if(widget == null)
+            throw new IllegalArgumentException("Widget must not be null!");
+        if(anchor == null)
+            throw new IllegalArgumentException("Anchor must not be null!");
+        this.anchors.put(widget, new AnchoredWidget(anchor, offsetX, offsetY));
+        this.invalidate();
+        return this;
+    }
+
+    public AnchorLayout anchor(Widget widget, Anchor anchor){
+        return this.anchor(widget, anchor, 0, 0);
+    }
+
+    @Override
+    protected void measure(List<Widget> widgets, int[] sizes){
+        int width = 0, height = 0;
+        for(int i = 0; i < widgets.size(); i++){
+            AnchoredWidget anchored = this.anchors.get(widgets.get(i));
+            if(anchored == null)
+                continue;
+            // Widgets anchored to the center need space on both sides
+            int horizontalMargin = anchored.anchor.horizontal == 1 ? Math.abs(anchored.offsetX) * 2 : Math.abs(anchored.offsetX);
+            int verticalMargin = anchored.anchor.vertical == 1 ? Math.abs(anchored.offsetY) * 2 : Math.abs(anchored.offsetY);
+            width = Math.max(width, sizes[i * 2] + horizontalMargin);
+            height = Math.max(height, sizes[i * 2 + 1] + verticalMargin);
+        }
+        this.setMeasuredSize(width, height);
+    }
+
+    @Override
+    protected void arrange(List<Widget> widgets, int[] sizes, int x, int y, int width, int height){
+        for(int i = 0; i < widgets.size(); i++){
+            Widget widget = widgets.get(i);
+            AnchoredWidget anchored = this.anchors.get(widget);
+            if(anchored == null)
+                continue;
+            int widgetWidth = sizes[i * 2], widgetHeight = sizes[i * 2 + 1];
+            int widgetX = x + (width - widgetWidth) * anchored.anchor.horizontal / 2 + (anchored.anchor.horizontal == 2 ? -anchored.offsetX : anchored.offsetX);
+            int widgetY = y + (height - widgetHeight) * anchored.anchor.vertical / 2 + (anchored.anchor.vertical == 2 ? -anchored.offsetY : anchored.offsetY);
+            place(widget, widgetX, widgetY, widgetWidth, widgetHeight);
+        }
+    }
+
+    public enum Anchor {
+        TOP_LEFT(0, 0), TOP(1, 0), TOP_RIGHT(2, 0),
+        LEFT(0, 1), CENTER(1, 1), RIGHT(2, 1),
+        BOTTOM_LEFT(0, 2), BOTTOM(1, 2), BOTTOM_RIGHT(2, 2);
+
+        /**
+         * Position of the anchor in halves of the available width and height
+         */
+        private final int horizontal, vertical;
+
+        Anchor(int horizontal, int vertical){
+            this.horizontal = horizontal;
+            this.vertical = vertical;
+        }
+    }
+
+    private static class AnchoredWidget {
+
+        private final Anchor anchor;
+        private final int offsetX, offsetY;
+
+        private AnchoredWidget(Anchor anchor, int offsetX, int offsetY){
+            this.anchor = anchor;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+    }
+}
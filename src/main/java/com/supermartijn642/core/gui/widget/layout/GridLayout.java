@@ -0,0 +1,84 @@
+package com.supermartijn642.core.gui.widget.layout;
+
+import com.supermartijn642.core.gui.widget.Widget;
+
+import java.util.List;
+
+/**
+ * Created 09/08/2022 by SuperMartijn642
+ * <p>
+ * Places widgets in a grid with a fixed number of columns, filling rows from left to right.
+ * Each column is as wide as its widest widget and each row is as high as its highest widget.
+ */
+public class GridLayout extends Layout {
+
+    private final int columns;
+    private final int horizontalSpacing, verticalSpacing;
+    private final Alignment alignment;
+    private int[] columnWidths = new int[0], rowHeights = new int[0];
+
+    /**
+     * @param alignment the alignment of widgets within their cell, in both directions
+     */
+    public GridLayout(int columns, int horizontalSpacing, int verticalSpacing, Alignment alignment){
+        if(columns <= 0)
+            throw new IllegalArgumentException("Number of columns must be greater than 0, not '" + columns + "'!");
+        if(alignment == null)
+            throw new IllegalArgumentException("Alignment must not be null!");
+        this.columns = columns;
+        this.horizontalSpacing = horizontalSpacing;
+        this.verticalSpacing = verticalSpacing;
+        this.alignment = alignment;
+    }
+
+    public GridLayout(int columns, int horizontalSpacing, int verticalSpacing){
+        this(columns, horizontalSpacing, verticalSpacing, Alignment.START);
+    }
+
+    @Override
+    protected void measure(List<Widget> widgets, int[] sizes){
+        int rows = (widgets.size() + this.columns - 1) / this.columns;
+        if(this.columnWidths.length < this.columns)
+            this.columnWidths = new int[this.columns];
+        if(this.rowHeights.length < rows)
+            this.rowHeights = new int[rows];
+        for(int i = 0; i < this.columns; i++)
+            this.columnWidths[i] = 0;
+        for(int i = 0; i < rows; i++)
+            this.rowHeights[i] = 0;
+
+        for(int i = 0; i < widgets.size(); i++){
+            int column = i % this.columns, row = i / this.columns;
+            this.columnWidths[column] = Math.max(this.columnWidths[column], sizes[i * 2]);
+            this.rowHeights[row] = Math.max(this.rowHeights[row], sizes[i * 2 + 1]);
+        }
+
+        int width = 0, height = 0;
+        for(int i = 0; i < this.columns; i++)
+            width += (i == 0 ? 0 : this.horizontalSpacing) + this.columnWidths[i];
+        for(int i = 0; i < rows; i++)
+            height += (i == 0 ? 0 : this.verticalSpacing) + this.rowHeights[i];
+        this.setMeasuredSize(width, height);
+    }
+
+    @Override
+    protected void arrange(List<Widget> widgets, int[] sizes, int x, int y, int width, int height){
+        // Column widths and row heights are computed when measuring
+        this.getMeasuredWidth(widgets);
+
+        int cellY = y;
+        for(int row = 0; row * this.columns < widgets.size(); row++){
+            int cellX = x;
+            for(int column = 0; column < this.columns && row * this.columns + column < widgets.size(); column++){
+                int index = row * this.columns + column;
+                int cellWidth = this.columnWidths[column], cellHeight = this.rowHeights[row];
+                int widgetWidth = sizes[index * 2], widgetHeight = sizes[index * 2 + 1];
+                place(widgets.get(index),
+                    this.alignment.position(cellX, cellWidth, widgetWidth), this.alignment.position(cellY, cellHeight, widgetHeight),
+                    this.alignment.size(cellWidth, widgetWidth), this.alignment.size(cellHeight, widgetHeight));
+                cellX += cellWidth + this.horizontalSpacing;
+            }
+            cellY += this.rowHeights[row] + this.verticalSpacing;
+        }
+    }
+}
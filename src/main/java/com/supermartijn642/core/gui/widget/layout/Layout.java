@@ -0,0 +1,160 @@
+package com.supermartijn642.core.gui.widget.layout;
+
+import com.supermartijn642.core.gui.widget.BaseWidget;
+import com.supermartijn642.core.gui.widget.Widget;
+
+import java.util.List;
+
+/**
+ * Created 09/08/2022 by SuperMartijn642
+ * <p>
+ * Positions the internal widgets of a {@link BaseWidget}, see {@link BaseWidget#setLayout(Layout)}.
+ * Layouts first measure the size needed by the widgets, then arrange the widgets within the available bounds.
+ * Both results are cached and are only recomputed when the widgets, the preferred size of one of the widgets, or the available bounds change.
+ * A layout instance should only be used by a single widget.
+ */
+public abstract class Layout {
+
+    private int[] sizes = new int[0];
+    private Widget[] widgets = new Widget[0];
+    private int widgetCount = -1;
+    private boolean measured, arranged;
+    private int measuredWidth, measuredHeight;
+    private int arrangedX, arrangedY, arrangedWidth, arrangedHeight;
+
+    /**
+     * Should be called when the layout's settings change, such that the widgets are measured and arranged again.
+     */
+    public void invalidate(){
+        this.widgetCount = -1;
+        this.measured = false;
+        this.arranged = false;
+    }
+
+    /**
+     * @return the width needed to fit the given widgets
+     */
+    public final int getMeasuredWidth(List<Widget> widgets){
+        this.measure(widgets);
+        return this.measuredWidth;
+    }
+
+    /**
+     * @return the height needed to fit the given widgets
+     */
+    public final int getMeasuredHeight(List<Widget> widgets){
+        this.measure(widgets);
+        return this.measuredHeight;
+    }
+
+    /**
+     * Arranges the given widgets within the given bounds, unless nothing changed since the widgets were last arranged.
+     * @return whether the widgets were arranged
+     */
+    public final boolean update(List<Widget> widgets, int x, int y, int width, int height){
+        this.updateSizes(widgets);
+        if(this.arranged && this.arrangedX == x && this.arrangedY == y && this.arrangedWidth == width && this.arrangedHeight == height)
+            return false;
+
+        this.arrange(widgets, this.sizes, x, y, width, height);
+        this.arranged = true;
+        this.arrangedX = x;
+        this.arrangedY = y;
+        this.arrangedWidth = width;
+        this.arrangedHeight = height;
+        return true;
+    }
+
+    private void measure(List<Widget> widgets){
+        this.updateSizes(widgets);
+        if(!this.measured){
+            this.measure(widgets, this.sizes);
+            this.measured = true;
+        }
+    }
+
+    /**
+     * Compares the widgets and their preferred sizes to the cached widgets and sizes.
+     */
+    private void updateSizes(List<Widget> widgets){
+        int count = widgets.size();
+        boolean changed = count != this.widgetCount;
+        if(this.widgets.length < count){
+            this.widgets = new Widget[count];
+            this.sizes = new int[count * 2];
+        }
+        for(int i = 0; i < count; i++){
+            Widget widget = widgets.get(i);
+            int width = getPreferredWidth(widget), height = getPreferredHeight(widget);
+            if(changed || this.widgets[i] != widget || this.sizes[i * 2] != width || this.sizes[i * 2 + 1] != height){
+                this.widgets[i] = widget;
+                this.sizes[i * 2] = width;
+                this.sizes[i * 2 + 1] = height;
+                changed = true;
+            }
+        }
+        // Don't keep removed widgets alive
+        for(int i = count; i < this.widgets.length && this.widgets[i] != null; i++)
+            this.widgets[i] = null;
+        if(changed){
+            this.widgetCount = count;
+            this.measured = false;
+            this.arranged = false;
+        }
+    }
+
+    /**
+     * Measures the size needed to fit the given widgets and passes it to {@link #setMeasuredSize(int, int)}.
+     * @param sizes the preferred width and height of each widget, the width of widget {@code i} is at index {@code 2 * i}
+     */
+    protected abstract void measure(List<Widget> widgets, int[] sizes);
+
+    /**
+     * Positions the given widgets within the given bounds using {@link #place(Widget, int, int, int, int)}.
+     * @param sizes the preferred width and height of each widget, the width of widget {@code i} is at index {@code 2 * i}
+     */
+    protected abstract void arrange(List<Widget> widgets, int[] sizes, int x, int y, int width, int height);
+
+    protected final void setMeasuredSize(int width, int height){
+        this.measuredWidth = width;
+        this.measuredHeight = height;
+    }
+
+    /**
+     * Sets the bounds of the given widget. Only {@link BaseWidget}s can be moved, other widgets are left in place.
+     */
+    protected static void place(Widget widget, int x, int y, int width, int height){
+        if(widget instanceof BaseWidget)
+            ((BaseWidget)widget).setBounds(x, y, width, height);
+    }
+
+    protected static int getPreferredWidth(Widget widget){
+        return widget instanceof BaseWidget ? ((BaseWidget)widget).getPreferredWidth() : widget.width();
+    }
+
+    protected static int getPreferredHeight(Widget widget){
+        return widget instanceof BaseWidget ? ((BaseWidget)widget).getPreferredHeight() : widget.height();
+    }
+
+    /**
+     * Alignment of widgets perpendicular to the direction of a layout.
+     */
+    public enum Alignment {
+        START, CENTER, END, STRETCH;
+
+        int position(int start, int available, int size){
+            switch(this){
+                case CENTER:
+                    return start + (available - size) / 2;
+                case END:
+                    return start + available - size;
+                default:
+                    return start;
+            }
+        }
+
+        int size(int available, int size){
+            return this == STRETCH ? available : size;
+        }
+    }
+}
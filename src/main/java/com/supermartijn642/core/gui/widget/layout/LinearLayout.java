@@ -0,0 +1,74 @@
+package com.supermartijn642.core.gui.widget.layout;
+
+import com.supermartijn642.core.gui.widget.Widget;
+
+import java.util.List;
+
+/**
+ * Created 09/08/2022 by SuperMartijn642
+ * <p>
+ * Places widgets next to each other in a row or below each other in a column, at their preferred size.
+ */
+public class LinearLayout extends Layout {
+
+    public static LinearLayout row(int spacing, Alignment alignment){
+        return new LinearLayout(true, spacing, alignment);
+    }
+
+    public static LinearLayout row(int spacing){
+        return row(spacing, Alignment.START);
+    }
+
+    public static LinearLayout column(int spacing, Alignment alignment){
+        return new LinearLayout(false, spacing, alignment);
+    }
+
+    public static LinearLayout column(int spacing){
+        return column(spacing, Alignment.START);
+    }
+
+    private final boolean horizontal;
+    private final int spacing;
+    private final Alignment alignment;
+
+    /**
+     * @param horizontal whether widgets are placed in a row rather than a column
+     * @param spacing    the space between two consecutive widgets
+     * @param alignment  the alignment of widgets perpendicular to the row or column
+     */
+    public LinearLayout(boolean horizontal, int spacing, Alignment alignment){
+        if(alignment == null)
+            throw new IllegalArgumentException("Alignment must not be null!");
+        this.horizontal = horizontal;
+        this.spacing = spacing;
+        this.alignment = alignment;
+    }
+
+    @Override
+    protected void measure(List<Widget> widgets, int[] sizes){
+        int length = 0, breadth = 0;
+        for(int i = 0; i < widgets.size(); i++){
+            length += (i == 0 ? 0 : this.spacing) + sizes[i * 2 + (this.horizontal ? 0 : 1)];
+            breadth = Math.max(breadth, sizes[i * 2 + (this.horizontal ? 1 : 0)]);
+        }
+        if(this.horizontal)
+            this.setMeasuredSize(length, breadth);
+        else
+            this.setMeasuredSize(breadth, length);
+    }
+
+    @Override
+    protected void arrange(List<Widget> widgets, int[] sizes, int x, int y, int width, int height){
+        int offset = this.horizontal ? x : y;
+        for(int i = 0; i < widgets.size(); i++){
+            int widgetWidth = sizes[i * 2], widgetHeight = sizes[i * 2 + 1];
+            if(this.horizontal){
+                place(widgets.get(i), offset, this.alignment.position(y, height, widgetHeight), widgetWidth, this.alignment.size(height, widgetHeight));
+                offset += widgetWidth + this.spacing;
+            }else{
+                place(widgets.get(i), this.alignment.position(x, width, widgetWidth), offset, this.alignment.size(width, widgetWidth), widgetHeight);
+                offset += widgetHeight + this.spacing;
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class ButtonWidget extends AbstractButtonWidget {
      */
     public void setText(ITextComponent text){
         this.text = text;
+        this.markDirty();
     }
 
     public ITextComponent getText(){
@@ -35,6 +36,8 @@ public class ButtonWidget extends AbstractButtonWidget {
     }
 
     public void setActive(boolean active){
+        if(this.active != active)
+            this.markDirty();
         this.active = active;
     }
 
@@ -42,6 +45,12 @@ public class ButtonWidget extends AbstractButtonWidget {
         return this.active;
     }
 
+    @Override
+    protected boolean cacheTooltipsAndNarration(){
+        // Subclasses may derive their tooltips from other state, hence they have to opt in themselves
+        return this.getClass() == ButtonWidget.class;
+    }
+
     @Override
     public ITextComponent getNarrationMessage(){
         return this.text;
@@ -5,6 +5,7 @@ import com.supermartijn642.core.gui.ScreenUtils;
 import com.supermartijn642.core.gui.widget.BaseWidget;
 import net.minecraft.util.text.ITextComponent;
 
+import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -13,27 +14,56 @@ import java.util.function.Supplier;
 public class LabelWidget extends BaseWidget {
 
     private final Supplier<ITextComponent> text;
+    /**
+     * Whether the label was given a fixed text rather than a supplier
+     */
+    private final boolean hasFixedText;
     private boolean active = true;
+    private ITextComponent lastText;
 
     /**
      * @param text the text to be displayed on the label
      */
     public LabelWidget(int x, int y, int width, int height, Supplier<ITextComponent> text){
-        super(x, y, width, height);
-        this.text = text;
+        this(x, y, width, height, text, false);
     }
 
     /**
      * @param text the text to be displayed on the label
      */
     public LabelWidget(int x, int y, int width, int height, ITextComponent text){
-        this(x, y, width, height, () -> text);
+        this(x, y, width, height, () -> text, true);
+    }
+
+    private LabelWidget(int x, int y, int width, int height, Supplier<ITextComponent> text, boolean hasFixedText){
+        super(x, y, width, height);
+        this.text = text;
+        this.hasFixedText = hasFixedText;
     }
 
     public void setActive(boolean active){
+        if(this.active != active)
+            this.markDirty();
         this.active = active;
     }
 
+    @Override
+    public void update(){
+        // Redraw retained parents when the supplied text changes
+        ITextComponent text = this.text.get();
+        if(!Objects.equals(text, this.lastText)){
+            this.lastText = text;
+            this.markDirty();
+        }
+        super.update();
+    }
+
+    @Override
+    protected boolean cacheTooltipsAndNarration(){
+        // A supplied text may change at any time, subclasses may derive their tooltips from other state
+        return this.hasFixedText && this.getClass() == LabelWidget.class;
+    }
+
     @Override
     public ITextComponent getNarrationMessage(){
         return this.text.get();
@@ -0,0 +1,416 @@
+package com.supermartijn642.core.gui.widget.premade;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import com.supermartijn642.core.ClientUtils;
+import com.supermartijn642.core.gui.ScreenUtils;
+import com.supermartijn642.core.gui.widget.BaseWidget;
+import com.supermartijn642.core.gui.widget.RetainedWidgetRenderer;
+import com.supermartijn642.core.gui.widget.Widget;
+import net.minecraft.client.MainWindow;
+import net.minecraft.util.math.vector.Vector4f;
+import net.minecraft.util.text.ITextComponent;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Created 08/08/2022 by SuperMartijn642
+ * <p>
+ * A scrollable list which only creates widgets for the rows inside its viewport. Rows which scroll out of view are recycled for rows which scroll into view.
+ * Rows may have different heights, their offsets are stored in an index which is only rebuilt when the entries or row heights change.
+ */
+public class ListWidget<T> extends BaseWidget {
+
+    private static final int SCROLLBAR_WIDTH = 6, SCROLL_SPEED = 20;
+
+    private final Supplier<Row<T>> rowFactory;
+    private final ToIntFunction<T> rowHeight;
+    private List<T> entries = Collections.emptyList();
+    /**
+     * The offset of each row from the top of the list, with the total height as last element
+     */
+    private int[] offsets = new int[1];
+    private boolean offsetsValid = true;
+    private boolean layoutValid = true;
+    private int scroll;
+    private boolean draggingScrollbar;
+    private int dragOffset;
+
+    private final Deque<Row<T>> activeRows = new ArrayDeque<>();
+    private int firstActiveIndex;
+    private final Deque<Row<T>> unusedRows = new ArrayDeque<>();
+
+    /**
+     * @param rowFactory creates new row widgets when there are no unused rows
+     * @param rowHeight  the height of the row for a given entry
+     */
+    public ListWidget(int x, int y, int width, int height, Supplier<Row<T>> rowFactory, ToIntFunction<T> rowHeight){
+        super(x, y, width, height);
+        if(rowFactory == null)
+            throw new IllegalArgumentException("Row factory must not be null!");
+        if(rowHeight == null)
+            throw new IllegalArgumentException("Row height must not be null!");
+        this.rowFactory = rowFactory;
+        this.rowHeight = rowHeight;
+    }
+
+    /**
+     * @param rowFactory creates new row widgets when there are no unused rows
+     * @param rowHeight  the height of every row
+     */
+    public ListWidget(int x, int y, int width, int height, Supplier<Row<T>> rowFactory, int rowHeight){
+        this(x, y, width, height, rowFactory, entry -> rowHeight);
+        if(rowHeight <= 0)
+            throw new IllegalArgumentException("Row height must be greater than 0, not '" + rowHeight + "'!");
+    }
+
+    /**
+     * Sets the entries shown in the list. The list is not copied, call {@link #refresh()} after modifying it.
+     */
+    public void setEntries(List<T> entries){
+        if(entries == null)
+            throw new IllegalArgumentException("Entries must not be null!");
+        this.entries = entries;
+        this.refresh();
+    }
+
+    public List<T> getEntries(){
+        return this.entries;
+    }
+
+    /**
+     * Should be called when the entries or their row heights have changed. All visible rows will be bound again.
+     */
+    public void refresh(){
+        while(!this.activeRows.isEmpty())
+            this.recycleRow(this.activeRows.pollFirst());
+        this.offsetsValid = false;
+        this.layoutValid = false;
+        this.markDirty();
+    }
+
+    /**
+     * @return the offset of the viewport from the top of the list
+     */
+    public int getScroll(){
+        return this.scroll;
+    }
+
+    public void setScroll(int scroll){
+        scroll = Math.max(0, Math.min(scroll, this.getMaxScroll()));
+        if(scroll != this.scroll){
+            this.scroll = scroll;
+            this.layoutValid = false;
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Scrolls the list such that the row for the given index is fully visible.
+     */
+    public void scrollTo(int index){
+        if(index < 0 || index >= this.entries.size())
+            throw new IllegalArgumentException("Index '" + index + "' is out of bounds for " + this.entries.size() + " entries!");
+        int[] offsets = this.getOffsets();
+        if(offsets[index] < this.scroll)
+            this.setScroll(offsets[index]);
+        else if(offsets[index + 1] > this.scroll + this.height)
+            this.setScroll(offsets[index + 1] - this.height);
+    }
+
+    /**
+     * @return the total height of all rows
+     */
+    public int getContentHeight(){
+        int[] offsets = this.getOffsets();
+        return offsets[this.entries.size()];
+    }
+
+    private int getMaxScroll(){
+        return Math.max(0, this.getContentHeight() - this.height);
+    }
+
+    private int[] getOffsets(){
+        if(!this.offsetsValid){
+            int size = this.entries.size();
+            if(this.offsets.length < size + 1)
+                this.offsets = new int[size + 1];
+            int offset = 0;
+            for(int i = 0; i < size; i++){
+                this.offsets[i] = offset;
+                offset += Math.max(0, this.rowHeight.applyAsInt(this.entries.get(i)));
+            }
+            this.offsets[size] = offset;
+            this.offsetsValid = true;
+            // Entries may have been removed
+            this.scroll = Math.max(0, Math.min(this.scroll, offset - this.height));
+        }
+        return this.offsets;
+    }
+
+    /**
+     * @return the index of the row containing the given offset from the top of the list
+     */
+    private int getIndexAt(int[] offsets, int offset){
+        int low = 0, high = this.entries.size() - 1;
+        while(low < high){
+            int middle = (low + high + 1) >>> 1;
+            if(offsets[middle] <= offset)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    private boolean hasScrollbar(){
+        return this.getContentHeight() > this.height;
+    }
+
+    /**
+     * Binds rows to the entries inside the viewport and recycles the rows of entries outside the viewport.
+     */
+    private void updateRows(){
+        if(this.layoutValid)
+            return;
+        this.layoutValid = true;
+
+        int[] offsets = this.getOffsets();
+        if(this.entries.isEmpty()){
+            while(!this.activeRows.isEmpty())
+                this.recycleRow(this.activeRows.pollFirst());
+            this.invalidateWidgetBounds();
+            return;
+        }
+        int first = this.getIndexAt(offsets, this.scroll);
+        int last = this.getIndexAt(offsets, this.scroll + this.height - 1);
+
+        // Recycle rows which scrolled out of view
+        while(!this.activeRows.isEmpty() && this.firstActiveIndex < first){
+            this.recycleRow(this.activeRows.pollFirst());
+            this.firstActiveIndex++;
+        }
+        while(!this.activeRows.isEmpty() && this.firstActiveIndex + this.activeRows.size() - 1 > last)
+            this.recycleRow(this.activeRows.pollLast());
+        if(this.activeRows.isEmpty())
+            this.firstActiveIndex = first;
+
+        // Bind rows which scrolled into view
+        while(this.firstActiveIndex > first)
+            this.activeRows.addFirst(this.bindRow(--this.firstActiveIndex));
+        while(this.firstActiveIndex + this.activeRows.size() - 1 < last)
+            this.activeRows.addLast(this.bindRow(this.firstActiveIndex + this.activeRows.size()));
+
+        // Position the visible rows
+        int rowWidth = this.width - (this.hasScrollbar() ? SCROLLBAR_WIDTH : 0);
+        int index = this.firstActiveIndex;
+        for(Row<T> row : this.activeRows){
+            row.setBounds(this.x, this.y + offsets[index] - this.scroll, rowWidth, offsets[index + 1] - offsets[index]);
+            index++;
+        }
+        this.invalidateWidgetBounds();
+    }
+
+    private Row<T> bindRow(int index){
+        Row<T> row = this.unusedRows.pollFirst();
+        if(row == null){
+            row = this.rowFactory.get();
+            if(row == null)
+                throw new IllegalStateException("Row factory must not return null!");
+            row.initialize();
+        }
+        row.index = index;
+        row.entry = this.entries.get(index);
+        row.bind(row.entry, index);
+        row.markDirty();
+        this.addWidget(row);
+        return row;
+    }
+
+    private void recycleRow(Row<T> row){
+        this.removeWidget(row);
+        row.unbind();
+        row.index = -1;
+        row.entry = null;
+        this.unusedRows.addLast(row);
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height){
+        if(this.x != x || this.y != y || this.width != width || this.height != height){
+            super.setBounds(x, y, width, height);
+            this.setScroll(this.scroll);
+            this.layoutValid = false;
+        }
+    }
+
+    private boolean isInViewport(int mouseX, int mouseY){
+        return mouseX >= this.x && mouseX < this.x + this.width && mouseY >= this.y && mouseY < this.y + this.height;
+    }
+
+    @Override
+    protected Widget getWidgetAt(int x, int y){
+        // Rows may stick out of the viewport
+        return this.isInViewport(x, y) ? super.getWidgetAt(x, y) : null;
+    }
+
+    @Override
+    public ITextComponent getNarrationMessage(){
+        return null;
+    }
+
+    @Override
+    public void renderBackground(MatrixStack poseStack, int mouseX, int mouseY){
+        if(this.draggingScrollbar){
+            int thumbHeight = this.getThumbHeight();
+            if(this.height > thumbHeight)
+                this.setScroll((int)((mouseY - this.dragOffset - this.y) / (double)(this.height - thumbHeight) * this.getMaxScroll()));
+        }
+        this.updateRows();
+
+        this.pushScissor(poseStack);
+        super.renderBackground(poseStack, mouseX, mouseY);
+        RetainedWidgetRenderer.popScissor();
+    }
+
+    @Override
+    public void render(MatrixStack poseStack, int mouseX, int mouseY){
+        this.pushScissor(poseStack);
+        super.render(poseStack, mouseX, mouseY);
+        RetainedWidgetRenderer.popScissor();
+
+        if(this.hasScrollbar()){
+            int scrollbarX = this.x + this.width - SCROLLBAR_WIDTH;
+            ScreenUtils.fillRect(poseStack, scrollbarX, this.y, SCROLLBAR_WIDTH, this.height, 0xFF000000);
+            ScreenUtils.fillRect(poseStack, scrollbarX, this.getThumbTop(), SCROLLBAR_WIDTH, this.getThumbHeight(), this.draggingScrollbar ? 0xFFFFFFFF : 0xFFC0C0C0);
+        }
+    }
+
+    @Override
+    public void renderForeground(MatrixStack poseStack, int mouseX, int mouseY){
+        this.pushScissor(poseStack);
+        super.renderForeground(poseStack, mouseX, mouseY);
+        RetainedWidgetRenderer.popScissor();
+    }
+
+    @Override
+    public void renderOverlay(MatrixStack poseStack, int mouseX, int mouseY){
+        this.pushScissor(poseStack);
+        super.renderOverlay(poseStack, mouseX, mouseY);
+        RetainedWidgetRenderer.popScissor();
+    }
+
+    private int getThumbHeight(){
+        return Math.max(8, (int)((long)this.height * this.height / Math.max(1, this.getContentHeight())));
+    }
+
+    private int getThumbTop(){
+        int maxScroll = this.getMaxScroll();
+        return maxScroll == 0 ? this.y : this.y + (int)((long)(this.height - this.getThumbHeight()) * this.scroll / maxScroll);
+    }
+
+    /**
+     * Restricts rendering to the list's bounds, within any outer scissor area. Scissor coordinates are in window pixels, so the current pose needs to be taken into account.
+     */
+    private void pushScissor(MatrixStack poseStack){
+        Vector4f topLeft = new Vector4f(this.x, this.y, 0, 1);
+        topLeft.transform(poseStack.last().pose());
+        MainWindow window = ClientUtils.getMinecraft().getWindow();
+        double scale = window.getGuiScale();
+        int left = (int)(topLeft.x() * scale), top = (int)(topLeft.y() * scale);
+        int width = (int)(this.width * scale), height = (int)(this.height * scale);
+        RetainedWidgetRenderer.pushScissor(left, window.getHeight() - top - height, Math.max(0, width), Math.max(0, height));
+    }
+
+    @Override
+    public boolean mousePressed(int mouseX, int mouseY, int button, boolean hasBeenHandled){
+        if(!hasBeenHandled && button == 0 && this.hasScrollbar() && this.isInViewport(mouseX, mouseY) && mouseX >= this.x + this.width - SCROLLBAR_WIDTH){
+            int thumbTop = this.getThumbTop(), thumbHeight = this.getThumbHeight();
+            this.dragOffset = mouseY >= thumbTop && mouseY < thumbTop + thumbHeight ? mouseY - thumbTop : thumbHeight / 2;
+            this.draggingScrollbar = true;
+            this.markDirty();
+            hasBeenHandled = true;
+        }
+        // Rows still get notified of presses outside the viewport, but only as handled presses
+        if(!this.isInViewport(mouseX, mouseY)){
+            super.mousePressed(mouseX, mouseY, button, true);
+            return hasBeenHandled;
+        }
+        return super.mousePressed(mouseX, mouseY, button, hasBeenHandled);
+    }
+
+    @Override
+    public boolean mouseReleased(int mouseX, int mouseY, int button, boolean hasBeenHandled){
+        if(this.draggingScrollbar && button == 0){
+            this.draggingScrollbar = false;
+            this.markDirty();
+        }
+        if(!this.isInViewport(mouseX, mouseY)){
+            super.mouseReleased(mouseX, mouseY, button, true);
+            return hasBeenHandled;
+        }
+        return super.mouseReleased(mouseX, mouseY, button, hasBeenHandled);
+    }
+
+    @Override
+    public boolean mouseScrolled(int mouseX, int mouseY, double scrollAmount, boolean hasBeenHandled){
+        if(!this.isInViewport(mouseX, mouseY)){
+            super.mouseScrolled(mouseX, mouseY, scrollAmount, true);
+            return hasBeenHandled;
+        }
+        hasBeenHandled = super.mouseScrolled(mouseX, mouseY, scrollAmount, hasBeenHandled);
+        if(!hasBeenHandled && this.hasScrollbar()){
+            this.setScroll(this.scroll - (int)(scrollAmount * SCROLL_SPEED));
+            this.updateRows();
+            return true;
+        }
+        return hasBeenHandled;
+    }
+
+    @Override
+    public void discard(){
+        super.discard();
+        this.unusedRows.forEach(Widget::discard);
+    }
+
+    /**
+     * A row in a {@link ListWidget}. Rows are reused for different entries as the list is scrolled.
+     */
+    public static abstract class Row<T> extends BaseWidget {
+
+        private int index = -1;
+        private T entry;
+
+        public Row(){
+            super(0, 0, 0, 0);
+        }
+
+        /**
+         * Called when this row is shown for the given entry. The row's bounds are updated after this call.
+         * @param entry the entry this row shows
+         * @param index the index of the entry in the list
+         */
+        protected abstract void bind(T entry, int index);
+
+        /**
+         * Called when this row's entry is no longer visible, before the row is reused.
+         */
+        protected void unbind(){
+        }
+
+        /**
+         * @return the index of the entry this row shows, or -1 if the row is not in use
+         */
+        public int getIndex(){
+            return this.index;
+        }
+
+        /**
+         * @return the entry this row shows, or {@code null} if the row is not in use
+         */
+        public T getEntry(){
+            return this.entry;
+        }
+    }
+}
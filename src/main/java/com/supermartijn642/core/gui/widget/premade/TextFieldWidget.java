@@ -37,6 +37,12 @@ public class TextFieldWidget extends BaseWidget {
     protected boolean drawBackground = true;
     protected int activeTextColor = 14737632, inactiveTextColor = 7368816;
 
+    // Layout of the text, only recomputed when the text or scroll offset changes
+    private String layoutText;
+    private float[] advances = new float[1];
+    private String visibleText;
+    private int visibleStart = -1, visibleWidth;
+
     private final BiConsumer<String,String> changeListener;
 
     public TextFieldWidget(int x, int y, int width, int height, String defaultText, int maxLength, BiConsumer<String,String> changeListener){
@@ -65,6 +71,12 @@ public class TextFieldWidget extends BaseWidget {
         this.cursorBlinkCounter++;
     }
 
+    @Override
+    protected boolean canBeCached(){
+        // The cursor blinks, hence text fields are always drawn live
+        return false;
+    }
+
     @Override
     public void render(MatrixStack poseStack, int mouseX, int mouseY){
         if(this.drawBackground)
@@ -74,7 +86,7 @@ public class TextFieldWidget extends BaseWidget {
         int relativeCursor = this.cursorPosition - this.lineScrollOffset;
         int relativeSelection = this.selectionPos - this.lineScrollOffset;
         FontRenderer fontRenderer = ClientUtils.getFontRenderer();
-        String s = fontRenderer.plainSubstrByWidth(this.text.substring(this.lineScrollOffset), this.width - 8);
+        String s = this.getVisibleText();
         boolean cursorInView = relativeCursor >= 0 && relativeCursor <= s.length();
         boolean shouldBlink = this.selected && this.cursorBlinkCounter / 8 % 2 == 0 && cursorInView;
         int left = this.x + 4;
@@ -84,9 +96,10 @@ public class TextFieldWidget extends BaseWidget {
         if(relativeSelection > s.length())
             relativeSelection = s.length();
 
+        // draw text
         if(!s.isEmpty()){
-            String s1 = cursorInView ? s.substring(0, relativeCursor) : s;
-            leftOffset = fontRenderer.draw(poseStack, s1, left, top, textColor) + 1;
+            fontRenderer.draw(poseStack, s, left, top, textColor);
+            leftOffset = left + (int)this.getWidth(this.lineScrollOffset, cursorInView ? this.cursorPosition : this.lineScrollOffset + s.length()) + 1;
         }
 
         boolean cursorAtEnd = this.cursorPosition < this.text.length();
@@ -94,14 +107,8 @@ public class TextFieldWidget extends BaseWidget {
 
         if(!cursorInView)
             cursorX = relativeCursor > 0 ? left + this.width : left;
-        else if(cursorAtEnd){
+        else if(cursorAtEnd)
             cursorX = leftOffset - 1;
-            leftOffset--;
-        }
-
-        // draw text
-        if(!s.isEmpty() && cursorInView && relativeCursor < s.length())
-            fontRenderer.draw(poseStack, s.substring(relativeCursor), leftOffset, top, textColor);
 
         // draw suggestion
         if(!this.suggestion.isEmpty() && this.text.isEmpty())
@@ -116,7 +123,7 @@ public class TextFieldWidget extends BaseWidget {
         }
 
         if(relativeSelection != relativeCursor){
-            int l1 = left + fontRenderer.width(s.substring(0, relativeSelection));
+            int l1 = left + MathHelper.ceil(this.getWidth(this.lineScrollOffset, this.lineScrollOffset + relativeSelection));
             this.drawSelectionBox(poseStack, cursorX, top - 1, l1 - 1, top + 1 + fontRenderer.lineHeight);
         }
     }
@@ -241,12 +248,93 @@ public class TextFieldWidget extends BaseWidget {
     protected void moveLineOffsetToCursor(){
         FontRenderer fontRenderer = ClientUtils.getFontRenderer();
         int availableWidth = this.width - 8 - (this.cursorPosition == this.text.length() ? fontRenderer.width("_") : 0);
-        int min = Math.min(this.cursorPosition + 1, this.text.length()) - fontRenderer.plainSubstrByWidth(new StringBuilder(this.text.substring(0, Math.min(this.text.length(), this.cursorPosition + 2))).reverse().toString(), availableWidth).length();
-        int max = Math.max(this.cursorPosition - 1, 0) + fontRenderer.plainSubstrByWidth(this.text.substring(Math.max(this.cursorPosition - 1, 0)), availableWidth).length();
-        max = max - fontRenderer.plainSubstrByWidth(new StringBuilder(this.text.substring(0, max)).reverse().toString(), availableWidth).length();
+        int end = Math.min(this.text.length(), this.cursorPosition + 2);
+        int min = Math.min(this.cursorPosition + 1, this.text.length()) - (end - this.getStartForWidth(end, availableWidth));
+        int max = this.getEndForWidth(Math.max(this.cursorPosition - 1, 0), availableWidth);
+        max = this.getStartForWidth(max, availableWidth);
         this.lineScrollOffset = Math.min(Math.max(this.lineScrollOffset, min), max);
     }
 
+    /**
+     * Measures the cumulative advance of every character in the text, if the text changed since the last call.
+     */
+    private void updateLayout(){
+        if(this.layoutText == this.text)
+            return;
+
+        FontRenderer fontRenderer = ClientUtils.getFontRenderer();
+        int length = this.text.length();
+        if(this.advances.length < length + 1)
+            this.advances = new float[Math.max(length + 1, this.advances.length * 2)];
+        this.advances[0] = 0;
+        int index = 0;
+        while(index < length){
+            int codePoint = this.text.codePointAt(index);
+            int charCount = Character.charCount(codePoint);
+            float advance = this.advances[index] + fontRenderer.getSplitter().stringWidth(this.text.substring(index, index + charCount));
+            // The advance within a surrogate pair is that of the start of the pair
+            for(int i = 1; i < charCount; i++)
+                this.advances[index + i] = this.advances[index];
+            index += charCount;
+            this.advances[index] = advance;
+        }
+        this.layoutText = this.text;
+        this.visibleStart = -1;
+    }
+
+    /**
+     * @return the width of the text between the given indices
+     */
+    private float getWidth(int start, int end){
+        this.updateLayout();
+        return this.advances[end] - this.advances[start];
+    }
+
+    /**
+     * @return the largest index such that the text between {@code start} and the index fits within the given width
+     */
+    private int getEndForWidth(int start, float width){
+        this.updateLayout();
+        int low = start, high = this.text.length();
+        while(low < high){
+            int middle = (low + high + 1) >>> 1;
+            if(this.advances[middle] - this.advances[start] <= width)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * @return the smallest index such that the text between the index and {@code end} fits within the given width
+     */
+    private int getStartForWidth(int end, float width){
+        this.updateLayout();
+        int low = 0, high = end;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(this.advances[end] - this.advances[middle] <= width)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
+    }
+
+    /**
+     * @return the part of the text which fits in the text field, starting at the scroll offset
+     */
+    private String getVisibleText(){
+        this.updateLayout();
+        if(this.visibleStart != this.lineScrollOffset || this.visibleWidth != this.width){
+            this.visibleText = this.text.substring(this.lineScrollOffset, this.getEndForWidth(this.lineScrollOffset, this.width - 8));
+            this.visibleStart = this.lineScrollOffset;
+            this.visibleWidth = this.width;
+        }
+        return this.visibleText;
+    }
+
     public String getSelectedText(){
         if(this.cursorPosition == this.selectionPos)
             return "";
@@ -383,10 +471,7 @@ public class TextFieldWidget extends BaseWidget {
                 this.clear();
             else{
                 int offset = MathHelper.floor(mouseX) - this.x - 4;
-
-                FontRenderer font = ClientUtils.getFontRenderer();
-                String s = font.plainSubstrByWidth(this.text.substring(this.lineScrollOffset), Math.min(offset, this.width - 8));
-                this.cursorPosition = s.length() + this.lineScrollOffset;
+                this.cursorPosition = this.getEndForWidth(this.lineScrollOffset, Math.min(offset, this.width - 8));
                 if(!Screen.hasShiftDown())
                     this.selectionPos = this.cursorPosition;
             }
@@ -0,0 +1,22 @@
+package com.supermartijn642.core.mixin;
+
+import com.supermartijn642.core.render.RenderProfiler;
+import net.minecraft.client.gui.overlay.DebugOverlayGui;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Created 15/08/2022 by SuperMartijn642
+ */
+@Mixin(DebugOverlayGui.class)
+public class DebugOverlayGuiMixin {
+
+    @Inject(method = "getGameInformation", at = @At("RETURN"))
+    public void getGameInformation(CallbackInfoReturnable<List<String>> ci){
+        RenderProfiler.addOverlayLines(ci.getReturnValue());
+    }
+}
@@ -0,0 +1,21 @@
+package com.supermartijn642.core.mixin;
+
+import com.supermartijn642.core.generator.OutputIndex;
+import net.minecraft.data.DirectoryCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Created 16/08/2022 by SuperMartijn642
+ */
+@Mixin(DirectoryCache.class)
+public class DirectoryCacheMixin {
+
+    @Inject(method = "purgeStaleAndWrite()V", at = @At("HEAD"))
+    public void purgeStaleAndWrite(CallbackInfo ci){
+        // The cache is written once all data providers have run
+        OutputIndex.finish((DirectoryCache)(Object)this);
+    }
+}
@@ -0,0 +1,31 @@
+package com.supermartijn642.core.mixin;
+
+import com.supermartijn642.core.gui.ScreenFrameCounter;
+import com.supermartijn642.core.render.RenderProfiler;
+import net.minecraft.client.renderer.GameRenderer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Created 15/08/2022 by SuperMartijn642
+ */
+@Mixin(GameRenderer.class)
+public class GameRendererMixin {
+
+    @Inject(method = "render(FJZ)V", at = @At("HEAD"))
+    public void renderHead(CallbackInfo ci){
+        ScreenFrameCounter.nextFrame();
+    }
+
+    @Inject(method = "tick()V", at = @At("HEAD"))
+    public void tickHead(CallbackInfo ci){
+        ScreenFrameCounter.nextFrame();
+    }
+
+    @Inject(method = "render(FJZ)V", at = @At("TAIL"))
+    public void renderTail(CallbackInfo ci){
+        RenderProfiler.endFrame();
+    }
+}
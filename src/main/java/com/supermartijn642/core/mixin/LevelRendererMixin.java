@@ -1,9 +1,10 @@
 package com.supermartijn642.core.mixin;
 
 import com.mojang.blaze3d.matrix.MatrixStack;
+import com.supermartijn642.core.render.InstancedRenderManager;
+import com.supermartijn642.core.render.RenderProfiler;
 import com.supermartijn642.core.render.RenderWorldEvent;
 import net.minecraft.client.renderer.WorldRenderer;
-import net.minecraftforge.common.MinecraftForge;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -20,6 +21,11 @@ public class LevelRendererMixin {
     private MatrixStack poseStack;
     private float partialTicks;
 
+    @Inject(method = "renderLevel", at = @At("HEAD"))
+    public void renderLevelHead(CallbackInfo ci){
+        InstancedRenderManager.beginCollecting();
+    }
+
     @ModifyVariable(method = "renderLevel", at = @At("HEAD"))
     public MatrixStack modifyPoseStack(MatrixStack poseStack){
         this.poseStack = poseStack;
@@ -41,6 +47,7 @@ public class LevelRendererMixin {
             to = @At(value = "INVOKE", target = "Lcom/mojang/blaze3d/systems/RenderSystem;multMatrix(Lnet/minecraft/util/math/vector/Matrix4f;)V")
         ))
     public void renderLevel(CallbackInfo ci){
-        MinecraftForge.EVENT_BUS.post(new RenderWorldEvent(this.poseStack, this.partialTicks));
+        InstancedRenderManager.drawCollected();
+        RenderProfiler.post(new RenderWorldEvent(this.poseStack, this.partialTicks));
     }
 }
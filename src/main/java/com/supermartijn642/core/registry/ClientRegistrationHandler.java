@@ -2,8 +2,10 @@ package com.supermartijn642.core.registry;
 
 import com.supermartijn642.core.ClientUtils;
 import com.supermartijn642.core.CoreLib;
+import com.supermartijn642.core.render.BlockEntityRenderDistance;
 import com.supermartijn642.core.render.CustomBlockEntityRenderer;
 import com.supermartijn642.core.render.CustomItemRenderer;
+import com.supermartijn642.core.render.RenderProfiler;
 import com.supermartijn642.core.util.Pair;
 import com.supermartijn642.core.util.TriFunction;
 import net.minecraft.block.Block;
@@ -372,6 +374,23 @@ public class ClientRegistrationHandler {
         this.registerBlockEntityRenderer(entityType, context -> CustomBlockEntityRenderer.of(blockEntityRenderer));
     }
 
+    /**
+     * Registers the given block entity renderer for the given block entity type. The renderer will only be called within the given render distance and receives a level of detail based on the distance to the camera.
+     */
+    public <T extends TileEntity> void registerCustomBlockEntityRenderer(Supplier<TileEntityType<T>> entityType, Supplier<CustomBlockEntityRenderer<? super T>> blockEntityRenderer, BlockEntityRenderDistance renderDistance){
+        if(renderDistance == null)
+            throw new IllegalArgumentException("Render distance must not be null!");
+
+        this.registerBlockEntityRenderer(entityType, context -> CustomBlockEntityRenderer.of(blockEntityRenderer.get(), renderDistance));
+    }
+
+    /**
+     * Registers the given block entity renderer for the given block entity type. The renderer will only be called within the given render distance and receives a level of detail based on the distance to the camera.
+     */
+    public <T extends TileEntity> void registerCustomBlockEntityRenderer(Supplier<TileEntityType<T>> entityType, CustomBlockEntityRenderer<? super T> blockEntityRenderer, BlockEntityRenderDistance renderDistance){
+        this.registerCustomBlockEntityRenderer(entityType, () -> blockEntityRenderer, renderDistance);
+    }
+
     /**
      * Adds the given sprite to the given atlas.
      */
@@ -638,8 +657,16 @@ public class ClientRegistrationHandler {
                 throw new RuntimeException("Duplicate block entity renderer for block entity type '" + Registries.BLOCK_ENTITY_TYPES.getIdentifier(blockEntityType) + "'!");
 
             blockEntityTypes.add(blockEntityType);
+            String name = Registries.BLOCK_ENTITY_TYPES.getIdentifier(blockEntityType).toString();
+            Function<TileEntityRendererDispatcher,TileEntityRenderer<?>> rendererFactory = dispatcher -> {
+                TileEntityRenderer<?> renderer = entry.right().apply(dispatcher);
+                // Show the renderer under its block entity type in the render profiler
+                if(renderer != null)
+                    RenderProfiler.setName(renderer, name);
+                return renderer;
+            };
             //noinspection unchecked,rawtypes
-            ClientRegistry.bindTileEntityRenderer((TileEntityType)blockEntityType, (Function)entry.right());
+            ClientRegistry.bindTileEntityRenderer((TileEntityType)blockEntityType, (Function)rendererFactory);
         }
 
         // Custom item renderers
@@ -658,6 +685,7 @@ public class ClientRegistrationHandler {
                 throw new RuntimeException("Got null custom item renderer for item '" + Registries.ITEMS.getIdentifier(item) + "'!");
 
             items.add(item);
+            RenderProfiler.setName(customRenderer, Registries.ITEMS.getIdentifier(item).toString());
             setItemCustomRenderer(item, () -> customRenderer);
         }
 
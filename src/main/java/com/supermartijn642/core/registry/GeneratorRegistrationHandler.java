@@ -50,6 +50,8 @@ public class GeneratorRegistrationHandler {
     private final String modid;
     private final List<Either<Function<ResourceCache,ResourceGenerator>,BiFunction<DataGenerator,ExistingFileHelper,IDataProvider>>> generatorsAndProviders = new ArrayList<>();
 
+    private int parallelThreads = 0;
+    private boolean zipOutput = false;
     private boolean hasEventBeenFired;
 
     private GeneratorRegistrationHandler(String modid){
@@ -131,9 +133,57 @@ public class GeneratorRegistrationHandler {
         this.addProvider((dataGenerator, existingFileHelper) -> provider);
     }
 
+    /**
+     * Runs the {@link ResourceGenerator#generate()} method of all generators in parallel on the given number of threads.
+     * {@link ResourceGenerator#save()} is still called for each generator in the order the generators were added.
+     * @param threads the number of worker threads to use
+     */
+    public void enableParallelGeneration(int threads){
+        if(threads <= 0)
+            throw new IllegalArgumentException("Number of threads must be greater than 0, not '" + threads + "'!");
+        if(this.hasEventBeenFired)
+            throw new RuntimeException("Parallel generation must be enabled before the GatherDataEvent gets fired!");
+
+        this.parallelThreads = threads;
+    }
+
+    /**
+     * Runs the {@link ResourceGenerator#generate()} method of all generators in parallel, using one thread per available processor.
+     * {@link ResourceGenerator#save()} is still called for each generator in the order the generators were added.
+     */
+    public void enableParallelGeneration(){
+        this.enableParallelGeneration(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Writes all resources from the generators to a single zip file '{modid}.zip' next to the output folder, rather than as separate files.
+     * The zip file is a resource pack with entries in a fixed order and with fixed timestamps, such that the same resources always give the same zip file.
+     * The zip file is not part of the mod's resources, its contents should be included through the build script, e.g. with {@code from zipTree(...)} in {@code processResources}.
+     */
+    public void enableZipOutput(){
+        if(this.hasEventBeenFired)
+            throw new RuntimeException("Zip output must be enabled before the GatherDataEvent gets fired!");
+
+        this.zipOutput = true;
+    }
+
     private void handleGatherDataEvent(GatherDataEvent e){
         this.hasEventBeenFired = true;
 
+        if(this.parallelThreads > 0 || this.zipOutput){
+            // All generators are combined into one provider at the position of the first generator
+            List<Function<ResourceCache,ResourceGenerator>> generators = new ArrayList<>();
+            for(Either<Function<ResourceCache,ResourceGenerator>,BiFunction<DataGenerator,ExistingFileHelper,IDataProvider>> either : this.generatorsAndProviders){
+                if(either.isLeft()){
+                    if(generators.isEmpty())
+                        e.getGenerator().addProvider(ResourceGenerator.createParallelDataProvider(generators, e.getExistingFileHelper(), e.getGenerator(), Math.max(this.parallelThreads, 1), this.zipOutput ? this.modid + ".zip" : null));
+                    generators.add(either.left());
+                }else
+                    e.getGenerator().addProvider(either.right().apply(e.getGenerator(), e.getExistingFileHelper()));
+            }
+            return;
+        }
+
         // Resolve and add all the generators and providers
         this.generatorsAndProviders
             .stream()
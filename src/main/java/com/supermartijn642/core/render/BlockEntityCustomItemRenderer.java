@@ -14,10 +14,15 @@ import net.minecraft.client.renderer.model.IBakedModel;
 import net.minecraft.client.renderer.model.ItemCameraTransforms;
 import net.minecraft.client.renderer.tileentity.TileEntityRendererDispatcher;
 import net.minecraft.item.BlockItem;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.client.ForgeHooksClient;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
@@ -29,26 +34,98 @@ public class BlockEntityCustomItemRenderer<T extends TileEntity> implements Cust
     protected final boolean renderItemModel;
     protected final Supplier<T> initEntity;
     protected final BiConsumer<ItemStack,T> entityUpdater;
+    protected final int cacheSize;
     protected T blockEntity;
 
+    private final Map<CacheKey,T> cache;
+    private final CacheKey lookupKey = new CacheKey();
+    private long cacheHits, cacheMisses;
+
     public BlockEntityCustomItemRenderer(boolean renderItemModel, Supplier<T> initEntity, BiConsumer<ItemStack,T> entityUpdater){
+        this(renderItemModel, initEntity, entityUpdater, 0);
+    }
+
+    /**
+     * @param cacheSize the maximum number of prepared block entities to keep. Stacks with the same item and tag will reuse a prepared block entity
+     *                  without calling the entity updater again, hence the entity updater must only depend on the stack's item and tag.
+     *                  When 0, a single block entity is updated for every stack.
+     */
+    public BlockEntityCustomItemRenderer(boolean renderItemModel, Supplier<T> initEntity, BiConsumer<ItemStack,T> entityUpdater, int cacheSize){
+        if(cacheSize < 0)
+            throw new IllegalArgumentException("Cache size must not be negative, not '" + cacheSize + "'!");
         this.renderItemModel = renderItemModel;
         this.initEntity = initEntity;
         this.entityUpdater = entityUpdater;
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize == 0 ? null : new LinkedHashMap<CacheKey,T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey,T> eldest){
+                return this.size() > BlockEntityCustomItemRenderer.this.cacheSize;
+            }
+        };
     }
 
     @Override
     public void render(ItemStack itemStack, ItemCameraTransforms.TransformType transformType, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay){
-        if(this.blockEntity == null){
-            this.blockEntity = this.initEntity.get();
-            if(this.blockEntity == null)
-                throw new RuntimeException("Init entity function must not return a null block entity!");
-        }
-        this.entityUpdater.accept(itemStack, this.blockEntity);
+        T entity = this.cache == null ? this.getUpdatedEntity(itemStack) : this.getCachedEntity(itemStack);
 
         if(this.renderItemModel)
             this.renderDefaultModel(itemStack, transformType, poseStack, bufferSource, combinedLight, combinedOverlay);
-        TileEntityRendererDispatcher.instance.renderItem(this.blockEntity, poseStack, bufferSource, combinedLight, combinedOverlay);
+        TileEntityRendererDispatcher.instance.renderItem(entity, poseStack, bufferSource, combinedLight, combinedOverlay);
+    }
+
+    private T getUpdatedEntity(ItemStack itemStack){
+        if(this.blockEntity == null)
+            this.blockEntity = this.createEntity();
+        this.entityUpdater.accept(itemStack, this.blockEntity);
+        return this.blockEntity;
+    }
+
+    private T getCachedEntity(ItemStack itemStack){
+        this.lookupKey.set(itemStack.getItem(), itemStack.getTag());
+        T entity = this.cache.get(this.lookupKey);
+        if(entity != null){
+            this.cacheHits++;
+            return entity;
+        }
+
+        this.cacheMisses++;
+        entity = this.createEntity();
+        this.entityUpdater.accept(itemStack, entity);
+        CompoundNBT tag = itemStack.getTag();
+        CacheKey key = new CacheKey();
+        key.set(itemStack.getItem(), tag == null ? null : tag.copy());
+        this.cache.put(key, entity);
+        return entity;
+    }
+
+    private T createEntity(){
+        T entity = this.initEntity.get();
+        if(entity == null)
+            throw new RuntimeException("Init entity function must not return a null block entity!");
+        return entity;
+    }
+
+    /**
+     * Removes all prepared block entities from the cache. This should be called when the entity updater's output changes for the same stacks.
+     */
+    public void clearCache(){
+        if(this.cache != null)
+            this.cache.clear();
+    }
+
+    /**
+     * @return the number of rendered stacks which reused a prepared block entity
+     */
+    public long getCacheHits(){
+        return this.cacheHits;
+    }
+
+    /**
+     * @return the number of rendered stacks for which a new block entity had to be prepared
+     */
+    public long getCacheMisses(){
+        return this.cacheMisses;
     }
 
     /**
@@ -78,4 +155,30 @@ public class BlockEntityCustomItemRenderer<T extends TileEntity> implements Cust
             itemRenderer.renderModelLists(model, itemStack, combinedLight, combinedOverlay, poseStack, vertexConsumer);
         }
     }
+
+    private static final class CacheKey {
+
+        private Item item;
+        private CompoundNBT tag;
+        private int hash;
+
+        private void set(Item item, CompoundNBT tag){
+            this.item = item;
+            this.tag = tag;
+            this.hash = 31 * item.hashCode() + (tag == null ? 0 : tag.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(this == o) return true;
+            if(!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey)o;
+            return this.hash == other.hash && this.item == other.item && Objects.equals(this.tag, other.tag);
+        }
+
+        @Override
+        public int hashCode(){
+            return this.hash;
+        }
+    }
 }
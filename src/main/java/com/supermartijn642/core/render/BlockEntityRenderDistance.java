@@ -0,0 +1,60 @@
+package com.supermartijn642.core.render;
+
+/**
+ * Created 02/08/2022 by SuperMartijn642
+ * <p>
+ * Maximum render distance and level of detail tiers for a {@link CustomBlockEntityRenderer}. Note that block entities beyond their
+ * {@link net.minecraft.tileentity.TileEntity#getViewDistance() view distance} are already skipped by Minecraft itself.
+ */
+public final class BlockEntityRenderDistance {
+
+    /**
+     * Renders at full detail at any distance
+     */
+    public static final BlockEntityRenderDistance UNLIMITED = new BlockEntityRenderDistance(Double.POSITIVE_INFINITY, new double[0]);
+
+    /**
+     * Creates render distance settings with the given maximum distance. Level of detail {@code i + 1} will be used from {@code detailDistances[i]} onwards.
+     * @param maxDistance     distance in blocks beyond which the block entity is not rendered
+     * @param detailDistances distances in blocks at which the next level of detail starts, in ascending order
+     */
+    public static BlockEntityRenderDistance of(double maxDistance, double... detailDistances){
+        if(maxDistance <= 0)
+            throw new IllegalArgumentException("Max distance must be greater than 0, not '" + maxDistance + "'!");
+        for(int i = 0; i < detailDistances.length; i++){
+            if(detailDistances[i] <= 0 || (i > 0 && detailDistances[i] <= detailDistances[i - 1]))
+                throw new IllegalArgumentException("Detail distances must be positive and in ascending order!");
+        }
+        double[] detailDistancesSquared = new double[detailDistances.length];
+        for(int i = 0; i < detailDistances.length; i++)
+            detailDistancesSquared[i] = detailDistances[i] * detailDistances[i];
+        return new BlockEntityRenderDistance(maxDistance * maxDistance, detailDistancesSquared);
+    }
+
+    private final double maxDistanceSquared;
+    private final double[] detailDistancesSquared;
+
+    private BlockEntityRenderDistance(double maxDistanceSquared, double[] detailDistancesSquared){
+        this.maxDistanceSquared = maxDistanceSquared;
+        this.detailDistancesSquared = detailDistancesSquared;
+    }
+
+    /**
+     * @return the level of detail for the given squared distance, starting at 0 for full detail, or -1 if it should not be rendered
+     */
+    public int getDetailLevel(double distanceSquared){
+        if(distanceSquared > this.maxDistanceSquared)
+            return -1;
+        int level = 0;
+        while(level < this.detailDistancesSquared.length && distanceSquared >= this.detailDistancesSquared[level])
+            level++;
+        return level;
+    }
+
+    /**
+     * @return the number of detail levels
+     */
+    public int getDetailLevelCount(){
+        return this.detailDistancesSquared.length + 1;
+    }
+}
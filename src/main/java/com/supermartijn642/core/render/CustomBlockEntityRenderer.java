@@ -11,16 +11,40 @@ import net.minecraft.tileentity.TileEntity;
 public interface CustomBlockEntityRenderer<T extends TileEntity> {
 
     static <T extends TileEntity> TileEntityRenderer<T> of(CustomBlockEntityRenderer<T> customRenderer){
-        return new TileEntityRenderer<T>(null) {
+        return of(customRenderer, BlockEntityRenderDistance.UNLIMITED);
+    }
+
+    static <T extends TileEntity> TileEntityRenderer<T> of(CustomBlockEntityRenderer<T> customRenderer, BlockEntityRenderDistance renderDistance){
+        if(renderDistance == null)
+            throw new IllegalArgumentException("Render distance must not be null!");
+        if(customRenderer instanceof InstancedBlockEntityRenderer)
+            return InstancedRenderManager.createRenderer((InstancedBlockEntityRenderer<T>)customRenderer, renderDistance);
+
+        TileEntityRenderer<T> renderer = new TileEntityRenderer<T>(null) {
             @Override
             public void render(T entity, float partialTicks, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay){
-                customRenderer.render(entity, partialTicks, poseStack, bufferSource, combinedLight, combinedOverlay);
+                int detailLevel = InstancedRenderManager.getDetailLevel(entity, renderDistance);
+                if(detailLevel < 0)
+                    return;
+                long start = RenderProfiler.start();
+                customRenderer.render(entity, partialTicks, poseStack, bufferSource, combinedLight, combinedOverlay, detailLevel);
+                RenderProfiler.stop(RenderProfiler.Category.BLOCK_ENTITY_RENDERER, this, start);
             }
         };
+        RenderProfiler.setName(renderer, customRenderer.getClass().getName());
+        return renderer;
     }
 
     /**
      * Renders the given block entity.
      */
     void render(T entity, float partialTicks, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay);
+
+    /**
+     * Renders the given block entity at the given level of detail, as determined by the renderer's {@link BlockEntityRenderDistance}.
+     * Level 0 is full detail, higher levels are further away from the camera. Outside the world, for example when rendered as an item, the level is always 0.
+     */
+    default void render(T entity, float partialTicks, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay, int detailLevel){
+        this.render(entity, partialTicks, poseStack, bufferSource, combinedLight, combinedOverlay);
+    }
 }
@@ -12,12 +12,16 @@ import net.minecraft.item.ItemStack;
 public interface CustomItemRenderer {
 
     static ItemStackTileEntityRenderer of(CustomItemRenderer customRenderer){
-        return new ItemStackTileEntityRenderer() {
+        ItemStackTileEntityRenderer renderer = new ItemStackTileEntityRenderer() {
             @Override
             public void renderByItem(ItemStack itemStack, ItemCameraTransforms.TransformType transformType, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay){
+                long start = RenderProfiler.start();
                 customRenderer.render(itemStack, transformType, poseStack, bufferSource, combinedLight, combinedOverlay);
+                RenderProfiler.stop(RenderProfiler.Category.ITEM_RENDERER, this, start);
             }
         };
+        RenderProfiler.setName(renderer, customRenderer.getClass().getName());
+        return renderer;
     }
 
     /**
@@ -0,0 +1,94 @@
+package com.supermartijn642.core.render;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import net.minecraft.util.math.vector.Matrix3f;
+import net.minecraft.util.math.vector.Matrix4f;
+
+/**
+ * Created 01/08/2022 by SuperMartijn642
+ * <p>
+ * Per-instance data for an {@link InstancedBlockEntityRenderer}. Instances are pooled and reused between frames.
+ */
+public final class InstanceData {
+
+    private final Matrix4f pose = new Matrix4f();
+    private final Matrix3f normal = new Matrix3f();
+    private int light;
+    private int overlay;
+    private float red, green, blue, alpha;
+
+    InstanceData(){
+    }
+
+    void reset(int light, int overlay){
+        this.light = light;
+        this.overlay = overlay;
+        this.red = this.green = this.blue = this.alpha = 1;
+    }
+
+    void setPose(MatrixStack.Entry pose){
+        this.pose.setIdentity();
+        this.pose.multiply(pose.pose());
+        this.normal.setIdentity();
+        this.normal.mul(pose.normal());
+    }
+
+    /**
+     * Sets the packed light value for this instance.
+     */
+    public InstanceData light(int light){
+        this.light = light;
+        return this;
+    }
+
+    /**
+     * Sets the packed overlay value for this instance.
+     */
+    public InstanceData overlay(int overlay){
+        this.overlay = overlay;
+        return this;
+    }
+
+    /**
+     * Sets the colour this instance's mesh will be tinted with.
+     */
+    public InstanceData color(float red, float green, float blue, float alpha){
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.alpha = alpha;
+        return this;
+    }
+
+    public Matrix4f pose(){
+        return this.pose;
+    }
+
+    public Matrix3f normal(){
+        return this.normal;
+    }
+
+    public int light(){
+        return this.light;
+    }
+
+    public int overlay(){
+        return this.overlay;
+    }
+
+    public float red(){
+        return this.red;
+    }
+
+    public float green(){
+        return this.green;
+    }
+
+    public float blue(){
+        return this.blue;
+    }
+
+    public float alpha(){
+        return this.alpha;
+    }
+}
@@ -0,0 +1,32 @@
+package com.supermartijn642.core.render;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import net.minecraft.client.renderer.IRenderTypeBuffer;
+import net.minecraft.tileentity.TileEntity;
+
+/**
+ * Created 01/08/2022 by SuperMartijn642
+ * <p>
+ * A block entity renderer which draws the same static mesh for every instance. The mesh is obtained once through {@link #createMesh()}.
+ * While the world is being rendered, instances are collected through {@link #setupInstance(TileEntity, float, MatrixStack, InstanceData)} and
+ * all instances of a renderer are drawn together in a single batch once all block entities have been rendered.
+ * <p>
+ * {@link #render(TileEntity, float, MatrixStack, IRenderTypeBuffer, int, int)} is still called for every instance and may be used to draw any dynamic parts.
+ */
+public interface InstancedBlockEntityRenderer<T extends TileEntity> extends CustomBlockEntityRenderer<T> {
+
+    /**
+     * Creates the static mesh which is drawn for every instance. This is only called once.
+     */
+    InstancedMesh createMesh();
+
+    /**
+     * Sets up the per-instance data for the given block entity. Transformations applied to the given pose stack will be applied to the instance.
+     * @return whether the mesh should be drawn for the given block entity
+     */
+    boolean setupInstance(T entity, float partialTicks, MatrixStack poseStack, InstanceData instance);
+
+    @Override
+    default void render(T entity, float partialTicks, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay){
+    }
+}
@@ -0,0 +1,186 @@
+package com.supermartijn642.core.render;
+
+import com.mojang.blaze3d.vertex.IVertexBuilder;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.model.BakedQuad;
+import net.minecraft.util.math.vector.Matrix3f;
+import net.minecraft.util.math.vector.Matrix4f;
+import net.minecraft.util.math.vector.Vector3f;
+import net.minecraft.util.math.vector.Vector4f;
+
+import java.util.Arrays;
+
+/**
+ * Created 01/08/2022 by SuperMartijn642
+ * <p>
+ * A static mesh which is built once and can then be drawn for many instances of an {@link InstancedBlockEntityRenderer}.
+ */
+public final class InstancedMesh {
+
+    public static Builder builder(RenderType renderType){
+        return new Builder(renderType);
+    }
+
+    private final RenderType renderType;
+    private final int vertexCount;
+    private final float[] positions;
+    private final float[] colors;
+    private final float[] uvs;
+    private final float[] normals;
+
+    // Scratch vectors, meshes are only ever drawn from the render thread
+    private final Vector4f position = new Vector4f();
+    private final Vector3f normal = new Vector3f();
+
+    private InstancedMesh(RenderType renderType, int vertexCount, float[] positions, float[] colors, float[] uvs, float[] normals){
+        this.renderType = renderType;
+        this.vertexCount = vertexCount;
+        this.positions = positions;
+        this.colors = colors;
+        this.uvs = uvs;
+        this.normals = normals;
+    }
+
+    public RenderType getRenderType(){
+        return this.renderType;
+    }
+
+    public int getVertexCount(){
+        return this.vertexCount;
+    }
+
+    /**
+     * Writes all vertices of this mesh to the given vertex builder, transformed by the instance's pose and tinted with the instance's colour.
+     */
+    public void draw(IVertexBuilder builder, InstanceData instance){
+        Matrix4f pose = instance.pose();
+        Matrix3f normalMatrix = instance.normal();
+        for(int vertex = 0; vertex < this.vertexCount; vertex++){
+            int i3 = vertex * 3, i4 = vertex * 4, i2 = vertex * 2;
+            this.position.set(this.positions[i3], this.positions[i3 + 1], this.positions[i3 + 2], 1);
+            this.position.transform(pose);
+            this.normal.set(this.normals[i3], this.normals[i3 + 1], this.normals[i3 + 2]);
+            this.normal.transform(normalMatrix);
+            builder.vertex(
+                this.position.x(), this.position.y(), this.position.z(),
+                this.colors[i4] * instance.red(), this.colors[i4 + 1] * instance.green(), this.colors[i4 + 2] * instance.blue(), this.colors[i4 + 3] * instance.alpha(),
+                this.uvs[i2], this.uvs[i2 + 1],
+                instance.overlay(), instance.light(),
+                this.normal.x(), this.normal.y(), this.normal.z()
+            );
+        }
+    }
+
+    public static final class Builder {
+
+        private final RenderType renderType;
+        private int vertexCount;
+        private float[] positions = new float[3 * 64];
+        private float[] colors = new float[4 * 64];
+        private float[] uvs = new float[2 * 64];
+        private float[] normals = new float[3 * 64];
+
+        private float x, y, z;
+        private float red = 1, green = 1, blue = 1, alpha = 1;
+        private float u, v;
+        private float normalX, normalY = 1, normalZ;
+
+        private Builder(RenderType renderType){
+            if(renderType == null)
+                throw new IllegalArgumentException("Render type must not be null!");
+            this.renderType = renderType;
+        }
+
+        public Builder vertex(float x, float y, float z){
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            return this;
+        }
+
+        public Builder color(float red, float green, float blue, float alpha){
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
+            this.alpha = alpha;
+            return this;
+        }
+
+        public Builder uv(float u, float v){
+            this.u = u;
+            this.v = v;
+            return this;
+        }
+
+        public Builder normal(float x, float y, float z){
+            this.normalX = x;
+            this.normalY = y;
+            this.normalZ = z;
+            return this;
+        }
+
+        /**
+         * Stores the current vertex. Colour, uv, and normal carry over to the next vertex unless changed.
+         */
+        public Builder endVertex(){
+            this.ensureCapacity(this.vertexCount + 1);
+            int i3 = this.vertexCount * 3, i4 = this.vertexCount * 4, i2 = this.vertexCount * 2;
+            this.positions[i3] = this.x;
+            this.positions[i3 + 1] = this.y;
+            this.positions[i3 + 2] = this.z;
+            this.colors[i4] = this.red;
+            this.colors[i4 + 1] = this.green;
+            this.colors[i4 + 2] = this.blue;
+            this.colors[i4 + 3] = this.alpha;
+            this.uvs[i2] = this.u;
+            this.uvs[i2 + 1] = this.v;
+            this.normals[i3] = this.normalX;
+            this.normals[i3 + 1] = this.normalY;
+            this.normals[i3 + 2] = this.normalZ;
+            this.vertexCount++;
+            return this;
+        }
+
+        /**
+         * Adds the vertices of the given quad. The quad is expected to be in the block vertex format.
+         */
+        public Builder quad(BakedQuad quad){
+            int[] data = quad.getVertices();
+            int stride = data.length / 4;
+            Vector3f normal = new Vector3f(quad.getDirection().getNormal().getX(), quad.getDirection().getNormal().getY(), quad.getDirection().getNormal().getZ());
+            for(int vertex = 0; vertex < 4; vertex++){
+                int offset = vertex * stride;
+                int color = data[offset + 3];
+                this.vertex(Float.intBitsToFloat(data[offset]), Float.intBitsToFloat(data[offset + 1]), Float.intBitsToFloat(data[offset + 2]))
+                    .color((color & 255) / 255f, (color >> 8 & 255) / 255f, (color >> 16 & 255) / 255f, (color >> 24 & 255) / 255f)
+                    .uv(Float.intBitsToFloat(data[offset + 4]), Float.intBitsToFloat(data[offset + 5]))
+                    .normal(normal.x(), normal.y(), normal.z())
+                    .endVertex();
+            }
+            return this;
+        }
+
+        public InstancedMesh build(){
+            if(this.vertexCount == 0)
+                throw new IllegalStateException("Instanced mesh must contain at least one vertex!");
+            return new InstancedMesh(
+                this.renderType,
+                this.vertexCount,
+                Arrays.copyOf(this.positions, this.vertexCount * 3),
+                Arrays.copyOf(this.colors, this.vertexCount * 4),
+                Arrays.copyOf(this.uvs, this.vertexCount * 2),
+                Arrays.copyOf(this.normals, this.vertexCount * 3)
+            );
+        }
+
+        private void ensureCapacity(int vertices){
+            if(vertices * 3 <= this.positions.length)
+                return;
+            int newVertices = Math.max(vertices, this.positions.length / 3 * 2);
+            this.positions = Arrays.copyOf(this.positions, newVertices * 3);
+            this.colors = Arrays.copyOf(this.colors, newVertices * 4);
+            this.uvs = Arrays.copyOf(this.uvs, newVertices * 2);
+            this.normals = Arrays.copyOf(this.normals, newVertices * 3);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.supermartijn642.core.render;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import com.mojang.blaze3d.vertex.IVertexBuilder;
+import net.minecraft.client.renderer.IRenderTypeBuffer;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.tileentity.TileEntityRenderer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.vector.Vector3d;
+
+import java.util.*;
+
+/**
+ * Created 01/08/2022 by SuperMartijn642
+ * <p>
+ * Collects instances of {@link InstancedBlockEntityRenderer}s while the world is rendered and draws them in one batch per render type.
+ */
+public final class InstancedRenderManager {
+
+    private static final Map<InstancedBlockEntityRenderer<?>,Batch> BATCHES = new IdentityHashMap<>();
+    private static final Map<RenderType,List<Batch>> BATCHES_PER_RENDER_TYPE = new LinkedHashMap<>();
+    private static final InstanceData IMMEDIATE_INSTANCE = new InstanceData();
+    private static boolean collecting = false;
+
+    static <T extends TileEntity> TileEntityRenderer<T> createRenderer(InstancedBlockEntityRenderer<T> customRenderer, BlockEntityRenderDistance renderDistance){
+        TileEntityRenderer<T> renderer = new TileEntityRenderer<T>(null) {
+            @Override
+            public void render(T entity, float partialTicks, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay){
+                int detailLevel = getDetailLevel(entity, renderDistance);
+                if(detailLevel < 0)
+                    return;
+                long start = RenderProfiler.start();
+                renderInstance(customRenderer, this, entity, partialTicks, poseStack, bufferSource, combinedLight, combinedOverlay);
+                customRenderer.render(entity, partialTicks, poseStack, bufferSource, combinedLight, combinedOverlay, detailLevel);
+                RenderProfiler.stop(RenderProfiler.Category.BLOCK_ENTITY_RENDERER, this, start);
+            }
+        };
+        RenderProfiler.setName(renderer, customRenderer.getClass().getName());
+        return renderer;
+    }
+
+    /**
+     * @return the level of detail for the given block entity, or -1 if it is out of range
+     */
+    static int getDetailLevel(TileEntity entity, BlockEntityRenderDistance renderDistance){
+        // Only block entities in the world are subject to distance
+        if(!collecting || renderDistance == BlockEntityRenderDistance.UNLIMITED)
+            return 0;
+
+        Vector3d camera = RenderUtils.getCameraPosition();
+        BlockPos pos = entity.getBlockPos();
+        double x = pos.getX() + 0.5 - camera.x, y = pos.getY() + 0.5 - camera.y, z = pos.getZ() + 0.5 - camera.z;
+        return renderDistance.getDetailLevel(x * x + y * y + z * z);
+    }
+
+    private static <T extends TileEntity> void renderInstance(InstancedBlockEntityRenderer<T> renderer, Object profilerKey, T entity, float partialTicks, MatrixStack poseStack, IRenderTypeBuffer bufferSource, int combinedLight, int combinedOverlay){
+        Batch batch = BATCHES.get(renderer);
+        if(batch == null){
+            batch = new Batch(renderer, profilerKey);
+            BATCHES.put(renderer, batch);
+            BATCHES_PER_RENDER_TYPE.computeIfAbsent(batch.mesh.getRenderType(), type -> new ArrayList<>()).add(batch);
+        }
+
+        // Outside the world pass, e.g. when rendering items, the instance is drawn directly
+        InstanceData instance = collecting ? batch.next() : IMMEDIATE_INSTANCE;
+        instance.reset(combinedLight, combinedOverlay);
+        poseStack.pushPose();
+        boolean draw = renderer.setupInstance(entity, partialTicks, poseStack, instance);
+        if(draw)
+            instance.setPose(poseStack.last());
+        poseStack.popPose();
+
+        if(collecting){
+            if(!draw)
+                batch.discardLast();
+        }else if(draw)
+            batch.mesh.draw(bufferSource.getBuffer(batch.mesh.getRenderType()), instance);
+    }
+
+    /**
+     * Starts collecting instances. Called at the start of the world render pass.
+     */
+    public static void beginCollecting(){
+        collecting = true;
+    }
+
+    /**
+     * Draws all collected instances and stops collecting. Called once all block entities have been rendered.
+     */
+    public static void drawCollected(){
+        collecting = false;
+
+        IRenderTypeBuffer.Impl bufferSource = RenderUtils.getMainBufferSource();
+        for(Map.Entry<RenderType,List<Batch>> entry : BATCHES_PER_RENDER_TYPE.entrySet()){
+            IVertexBuilder builder = null;
+            for(Batch batch : entry.getValue()){
+                if(batch.count == 0)
+                    continue;
+                long start = RenderProfiler.start();
+                if(builder == null)
+                    builder = bufferSource.getBuffer(entry.getKey());
+                for(int i = 0; i < batch.count; i++)
+                    batch.mesh.draw(builder, batch.instances.get(i));
+                batch.count = 0;
+                RenderProfiler.stop(RenderProfiler.Category.BLOCK_ENTITY_RENDERER, batch.profilerKey, start);
+            }
+            if(builder != null)
+                bufferSource.endBatch(entry.getKey());
+        }
+    }
+
+    private static class Batch {
+
+        /**
+         * The block entity renderer which the batch's time is attributed to
+         */
+        private final Object profilerKey;
+        private final InstancedMesh mesh;
+        private final List<InstanceData> instances = new ArrayList<>();
+        private int count;
+
+        private Batch(InstancedBlockEntityRenderer<?> renderer, Object profilerKey){
+            this.profilerKey = profilerKey;
+            this.mesh = renderer.createMesh();
+            if(this.mesh == null)
+                throw new RuntimeException("Instanced block entity renderer '" + renderer.getClass() + "' returned a null mesh!");
+        }
+
+        private InstanceData next(){
+            if(this.count == this.instances.size())
+                this.instances.add(new InstanceData());
+            return this.instances.get(this.count++);
+        }
+
+        private void discardLast(){
+            this.count--;
+        }
+    }
+}
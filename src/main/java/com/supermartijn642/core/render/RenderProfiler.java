@@ -0,0 +1,236 @@
+package com.supermartijn642.core.render;
+
+import com.supermartijn642.core.ClientUtils;
+import com.supermartijn642.core.CoreLib;
+import com.supermartijn642.core.TextComponents;
+import net.minecraft.client.settings.KeyBinding;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.fml.client.registry.ClientRegistry;
+import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.*;
+
+/**
+ * Created 03/08/2022 by SuperMartijn642
+ * <p>
+ * Measures the cpu time spent in {@link CustomBlockEntityRenderer}s, {@link CustomItemRenderer}s, and {@link RenderWorldEvent} listeners.
+ * Profiling is off by default and can be controlled through two key bindings, which are unbound by default. One starts and stops the profiler, writing the results to the log when it stops, the other shows the results in the debug screen.
+ */
+public final class RenderProfiler {
+
+    private static final int OVERLAY_LINES = 10;
+
+    private static final Map<Category,Map<Object,Entry>> ENTRIES = new EnumMap<>(Category.class);
+    private static final Map<Object,String> NAMES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static KeyBinding toggleKey, overlayKey;
+    private static volatile boolean enabled = false;
+    private static volatile boolean showOverlay = false;
+    private static int frames = 0;
+
+    static{
+        for(Category category : Category.values())
+            ENTRIES.put(category, new LinkedHashMap<>());
+    }
+
+    public static boolean isEnabled(){
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled){
+        RenderProfiler.enabled = enabled;
+    }
+
+    public static boolean isOverlayVisible(){
+        return showOverlay;
+    }
+
+    public static void setOverlayVisible(boolean visible){
+        showOverlay = visible;
+    }
+
+    /**
+     * Clears all measurements.
+     */
+    public static void reset(){
+        ENTRIES.values().forEach(Map::clear);
+        frames = 0;
+    }
+
+    /**
+     * @return a start time to be passed to {@link #stop(Category, Object, long)}, or 0 when profiling is disabled
+     */
+    public static long start(){
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Sets the name under which measurements for the given key are shown, for example the block entity type a renderer is registered for.
+     */
+    public static void setName(Object key, String name){
+        NAMES.put(key, name);
+    }
+
+    /**
+     * Adds the time since the given start time to the entry for the given key. Renderers should be keyed by the renderer instance, see {@link #setName(Object, String)}.
+     */
+    public static void stop(Category category, Object key, long start){
+        if(start == 0 || !enabled)
+            return;
+        long time = System.nanoTime() - start;
+        Entry entry = ENTRIES.get(category).get(key);
+        if(entry == null){
+            String name = NAMES.get(key);
+            entry = new Entry(name == null ? key.toString() : name);
+            ENTRIES.get(category).put(key, entry);
+        }
+        entry.frameNanos += time;
+    }
+
+    /**
+     * Posts the given event, measuring the time spent in each of its listeners when profiling is enabled.
+     */
+    public static void post(RenderWorldEvent event){
+        if(!enabled){
+            MinecraftForge.EVENT_BUS.post(event);
+            return;
+        }
+
+        MinecraftForge.EVENT_BUS.post(event, (listener, e) -> {
+            // Priorities are listeners which only mark the start of a phase
+            if(listener instanceof EventPriority){
+                listener.invoke(e);
+                return;
+            }
+            long start = start();
+            listener.invoke(e);
+            stop(Category.RENDER_WORLD_LISTENER, listener, start);
+        });
+    }
+
+    /**
+     * Registers the profiler's key bindings.
+     */
+    public static void registerKeyBindings(){
+        FMLJavaModLoadingContext.get().getModEventBus().addListener(RenderProfiler::onClientSetup);
+        MinecraftForge.EVENT_BUS.addListener(RenderProfiler::onClientTick);
+    }
+
+    /**
+     * Called at the end of every frame, moves the measurements for the frame to the totals.
+     */
+    public static void endFrame(){
+        if(!enabled)
+            return;
+
+        frames++;
+        for(Map<Object,Entry> entries : ENTRIES.values()){
+            for(Entry entry : entries.values()){
+                entry.totalNanos += entry.frameNanos;
+                entry.worstNanos = Math.max(entry.worstNanos, entry.frameNanos);
+                entry.frameNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * Adds the results to the given lines of the debug screen when the overlay is enabled.
+     */
+    public static void addOverlayLines(List<String> lines){
+        if(!showOverlay)
+            return;
+
+        lines.add("CoreLib render profiler" + (enabled ? "" : " (stopped)") + ", " + frames + " frames, avg / worst ms:");
+        for(Category category : Category.values()){
+            List<Entry> entries = new ArrayList<>(ENTRIES.get(category).values());
+            if(entries.isEmpty())
+                continue;
+            entries.sort(Comparator.comparingLong((Entry entry) -> entry.totalNanos).reversed());
+            lines.add(" " + category.displayName + ":");
+            for(int i = 0; i < entries.size() && i < OVERLAY_LINES; i++)
+                lines.add("  " + entries.get(i).format(frames));
+            if(entries.size() > OVERLAY_LINES)
+                lines.add("  ... " + (entries.size() - OVERLAY_LINES) + " more");
+        }
+    }
+
+    private static void onClientSetup(FMLClientSetupEvent e){
+        toggleKey = new KeyBinding("supermartijn642corelib.keys.profiler_toggle", GLFW.GLFW_KEY_UNKNOWN, "supermartijn642corelib.keys.category");
+        overlayKey = new KeyBinding("supermartijn642corelib.keys.profiler_overlay", GLFW.GLFW_KEY_UNKNOWN, "supermartijn642corelib.keys.category");
+        e.enqueueWork(() -> {
+            ClientRegistry.registerKeyBinding(toggleKey);
+            ClientRegistry.registerKeyBinding(overlayKey);
+        });
+    }
+
+    private static void onClientTick(TickEvent.ClientTickEvent e){
+        if(e.phase != TickEvent.Phase.END || toggleKey == null)
+            return;
+
+        while(toggleKey.consumeClick()){
+            if(enabled){
+                setEnabled(false);
+                dump();
+                sendMessage("Render profiler stopped, the results have been written to the log");
+            }else{
+                reset();
+                setEnabled(true);
+                sendMessage("Render profiler started");
+            }
+        }
+        while(overlayKey.consumeClick()){
+            setOverlayVisible(!showOverlay);
+            sendMessage("Render profiler overlay " + (showOverlay ? "shown in the debug screen" : "hidden"));
+        }
+    }
+
+    /**
+     * Writes the average and worst frame cost of every entry to the log.
+     */
+    public static void dump(){
+        StringBuilder builder = new StringBuilder("CoreLib render profiler results over ").append(frames).append(" frames (average / worst ms per frame):");
+        for(Category category : Category.values()){
+            builder.append("\n  ").append(category.displayName).append(":");
+            for(Entry entry : ENTRIES.get(category).values())
+                builder.append("\n    ").append(entry.format(frames));
+        }
+        CoreLib.LOGGER.info(builder.toString());
+    }
+
+    private static void sendMessage(String message){
+        PlayerEntity player = ClientUtils.getPlayer();
+        if(player != null)
+            player.displayClientMessage(TextComponents.string(message).get(), false);
+    }
+
+    public enum Category {
+        BLOCK_ENTITY_RENDERER("Block entity renderers"),
+        ITEM_RENDERER("Item renderers"),
+        RENDER_WORLD_LISTENER("Render world listeners");
+
+        private final String displayName;
+
+        Category(String displayName){
+            this.displayName = displayName;
+        }
+    }
+
+    private static class Entry {
+
+        private final String name;
+        private long frameNanos, totalNanos, worstNanos;
+
+        private Entry(String name){
+            this.name = name;
+        }
+
+        private String format(int frames){
+            double average = frames == 0 ? 0 : this.totalNanos / (double)frames / 1_000_000;
+            return String.format("%s: %.3f / %.3f", this.name, average, this.worstNanos / 1_000_000d);
+        }
+    }
+}